@@ -0,0 +1,318 @@
+package main;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Append-only binary log of every analysis made in the game.
+// File layout: "LAL1" magic, then records of [int length][payload] (see Event.writeTo).
+// Callers only enqueue; a background thread encodes, batches, appends and fsyncs periodically.
+// When the queue is full the event is dropped and counted instead of blocking the caller.
+// On open, a torn last record left by a crash is cut off so new records stay readable.
+public class AnalysisLog {
+    static final int MAGIC = 0x4C414C31;  // "LAL1"
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final int MAX_BATCH = 512;
+    private static final long FSYNC_INTERVAL_MS = 1000;
+    private static final String DEFAULT_PATH = "analysis-log.bin";
+    private static final int MAX_STRING_CHARS = 20000;
+
+    private static AnalysisLog instance;
+
+    private final Path path;
+    private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // Returns the shared log, starting its writer thread on first use.
+    // The file can be changed with -Danalysis.log=<path>
+    public static synchronized AnalysisLog getInstance() {
+        if (instance == null) {
+            instance = new AnalysisLog(Paths.get(System.getProperty("analysis.log", DEFAULT_PATH)));
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "analysis-log-shutdown"));
+        }
+        return instance;
+    }
+
+    AnalysisLog(Path path) {
+        this.path = path;
+        this.writer = new Thread(this::writeLoop, "analysis-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // Never blocks: returns false (and counts the drop) if the writer has fallen behind
+    public boolean record(String input, ExpertSystem.SentenceAnalysis analysis, long latencyNanos,
+                          int imageHits, int imageMisses) {
+        if (!running) return false;
+        Event event = new Event(System.currentTimeMillis(), latencyNanos, input, analysis, imageHits, imageMisses);
+        if (!queue.offer(event)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // Stops the writer after it has flushed and synced everything queued so far
+    public void close() {
+        // No interrupt here: an interrupted FileChannel closes itself mid-write.
+        // The writer notices within one poll interval and drains the queue first.
+        running = false;
+        try {
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        List<Event> batch = new ArrayList<>(MAX_BATCH);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        ByteArrayOutputStream record = new ByteArrayOutputStream(512);
+        DataOutputStream recordOut = new DataOutputStream(record);
+
+        try (FileChannel channel = openChannel()) {
+            long lastSync = System.currentTimeMillis();
+            boolean dirty = false;
+            while (running || !queue.isEmpty()) {
+                try {
+                    Event first = queue.poll(FSYNC_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        batch.add(first);
+                    }
+                } catch (InterruptedException e) {
+                    running = false;
+                }
+                queue.drainTo(batch, MAX_BATCH - batch.size());
+
+                if (!batch.isEmpty()) {
+                    bytes.reset();
+                    for (Event event : batch) {
+                        record.reset();
+                        event.writeTo(recordOut);
+                        out.writeInt(record.size());
+                        record.writeTo(out);
+                    }
+                    batch.clear();
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    dirty = true;
+                }
+
+                long now = System.currentTimeMillis();
+                if (dirty && (now - lastSync >= FSYNC_INTERVAL_MS || !running)) {
+                    channel.force(false);
+                    lastSync = now;
+                    dirty = false;
+                }
+            }
+            if (dirty) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            running = false;
+            System.err.println("Error writing analysis log: " + e.getMessage());
+        }
+    }
+
+    private FileChannel openChannel() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long end = recoverEnd(channel);
+            if (end == 0) {
+                ByteBuffer header = ByteBuffer.allocate(4).putInt(MAGIC);
+                header.flip();
+                channel.truncate(0);
+                channel.write(header, 0);
+                end = 4;
+            } else if (end < channel.size()) {
+                // A crash mid-append left a torn record; appending after it would hide every later one
+                System.err.println("Analysis log: dropping " + (channel.size() - end) + " bytes of a torn record");
+                channel.truncate(end);
+            }
+            channel.position(end);
+            return channel;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Returns the offset just past the last complete record, or 0 if the file is empty or holds only
+    // part of the magic. Fails if the file is not an analysis log.
+    private long recoverEnd(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(4);
+        int read = readAt(channel, header, 0);
+        for (int i = 0; i < read; i++) {
+            if (header.get(i) != (byte) (MAGIC >>> (24 - 8 * i))) {
+                throw new IOException("Not an analysis log: " + path);
+            }
+        }
+        if (size < 4) return 0;
+
+        long end = 4;
+        ByteBuffer length = ByteBuffer.allocate(4);
+        while (end + 4 <= size) {
+            length.clear();
+            readAt(channel, length, end);
+            int payload = length.getInt(0);
+            if (payload < 0 || end + 4 + payload > size) break;
+            end += 4 + payload;
+        }
+        return end;
+    }
+
+    // Fills the buffer from the given file offset, stopping early at the end of the file
+    private static int readAt(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position() - start) > 0) {
+            continue;
+        }
+        return buffer.position() - start;
+    }
+
+    // One logged analysis
+    public static class Event {
+        private final long timestamp;
+        private final long latencyNanos;
+        private final String input;
+        private final boolean isSentence;
+        private final String sentenceType;
+        private final String mood;
+        private final String mainSubject;
+        private final String mainObject;
+        private final List<String> subjects;
+        private final List<String> verbs;
+        private final List<String> objects;
+        private final int imageHits;
+        private final int imageMisses;
+
+        Event(long timestamp, long latencyNanos, String input, ExpertSystem.SentenceAnalysis analysis,
+              int imageHits, int imageMisses) {
+            this(timestamp, latencyNanos, input, analysis.isSentence(), analysis.getSentenceType(),
+                 analysis.getMood(), analysis.getMainSubject(), analysis.getMainObject(),
+                 analysis.getSubjects(), analysis.getVerbs(), analysis.getObjects(), imageHits, imageMisses);
+        }
+
+        private Event(long timestamp, long latencyNanos, String input, boolean isSentence, String sentenceType,
+                      String mood, String mainSubject, String mainObject, List<String> subjects,
+                      List<String> verbs, List<String> objects, int imageHits, int imageMisses) {
+            this.timestamp = timestamp;
+            this.latencyNanos = latencyNanos;
+            this.input = input;
+            this.isSentence = isSentence;
+            this.sentenceType = sentenceType;
+            this.mood = mood;
+            this.mainSubject = mainSubject;
+            this.mainObject = mainObject;
+            this.subjects = subjects;
+            this.verbs = verbs;
+            this.objects = objects;
+            this.imageHits = imageHits;
+            this.imageMisses = imageMisses;
+        }
+
+        public long getTimestamp() { return timestamp; }
+        public long getLatencyNanos() { return latencyNanos; }
+        public String getInput() { return input; }
+        public boolean isSentence() { return isSentence; }
+        public String getSentenceType() { return sentenceType; }
+        public String getMood() { return mood; }
+        public String getMainSubject() { return mainSubject; }
+        public String getMainObject() { return mainObject; }
+        public List<String> getSubjects() { return subjects; }
+        public List<String> getVerbs() { return verbs; }
+        public List<String> getObjects() { return objects; }
+        public int getImageHits() { return imageHits; }
+        public int getImageMisses() { return imageMisses; }
+
+        // Payload: long timestamp, long latency, boolean isSentence, nullable UTF strings
+        // (input, type, mood, main subject, main object), three counted string lists, two image counters
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeLong(timestamp);
+            out.writeLong(latencyNanos);
+            out.writeBoolean(isSentence);
+            writeString(out, input);
+            writeString(out, sentenceType);
+            writeString(out, mood);
+            writeString(out, mainSubject);
+            writeString(out, mainObject);
+            writeList(out, subjects);
+            writeList(out, verbs);
+            writeList(out, objects);
+            out.writeShort(Math.min(imageHits, 0xFFFF));
+            out.writeShort(Math.min(imageMisses, 0xFFFF));
+        }
+
+        static Event readFrom(DataInputStream in) throws IOException {
+            long timestamp = in.readLong();
+            long latencyNanos = in.readLong();
+            boolean isSentence = in.readBoolean();
+            String input = readString(in);
+            String sentenceType = readString(in);
+            String mood = readString(in);
+            String mainSubject = readString(in);
+            String mainObject = readString(in);
+            List<String> subjects = readList(in);
+            List<String> verbs = readList(in);
+            List<String> objects = readList(in);
+            int imageHits = in.readUnsignedShort();
+            int imageMisses = in.readUnsignedShort();
+            return new Event(timestamp, latencyNanos, input, isSentence, sentenceType, mood,
+                mainSubject, mainObject, subjects, verbs, objects, imageHits, imageMisses);
+        }
+
+        private static void writeString(DataOutputStream out, String value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                // writeUTF is limited to 64 KB of encoded data, so very long inputs are truncated
+                out.writeUTF(value.length() > MAX_STRING_CHARS ? value.substring(0, MAX_STRING_CHARS) : value);
+            }
+        }
+
+        private static String readString(DataInputStream in) throws IOException {
+            return in.readBoolean() ? in.readUTF() : null;
+        }
+
+        private static void writeList(DataOutputStream out, List<String> values) throws IOException {
+            int size = Math.min(values.size(), 0xFFFF);
+            out.writeShort(size);
+            for (int i = 0; i < size; i++) {
+                String value = values.get(i);
+                out.writeUTF(value.length() > MAX_STRING_CHARS ? value.substring(0, MAX_STRING_CHARS) : value);
+            }
+        }
+
+        private static List<String> readList(DataInputStream in) throws IOException {
+            int size = in.readUnsignedShort();
+            if (size == 0) return Collections.emptyList();
+            List<String> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(in.readUTF());
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package main;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Streams events back out of an AnalysisLog file, one record at a time.
+// Usage: java main.AnalysisLogReader [analysis-log.bin]
+// A truncated last record (e.g. after a crash before fsync) ends the stream instead of failing.
+public class AnalysisLogReader implements Closeable {
+    private final DataInputStream in;
+
+    public AnalysisLogReader(Path path) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024));
+        if (in.readInt() != AnalysisLog.MAGIC) {
+            in.close();
+            throw new IOException("Not an analysis log: " + path);
+        }
+    }
+
+    // Returns the next event, or null at the end of the log
+    public AnalysisLog.Event next() throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        try {
+            in.readFully(payload);
+        } catch (EOFException e) {
+            return null;
+        }
+        return AnalysisLog.Event.readFrom(new DataInputStream(new ByteArrayInputStream(payload)));
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    public static void main(String[] args) {
+        Path path = Paths.get(args.length > 0 ? args[0] : System.getProperty("analysis.log", "analysis-log.bin"));
+        try (AnalysisLogReader reader = new AnalysisLogReader(path)) {
+            AnalysisLog.Event event;
+            long count = 0;
+            while ((event = reader.next()) != null) {
+                count++;
+                System.out.println(event.getTimestamp() + "\t"
+                    + (event.getLatencyNanos() / 1000) + "us\t"
+                    + event.getSentenceType() + "/" + event.getMood() + "\t"
+                    + "subjects=" + event.getSubjects() + " verbs=" + event.getVerbs()
+                    + " objects=" + event.getObjects() + "\t"
+                    + "images=" + event.getImageHits() + "/" + (event.getImageHits() + event.getImageMisses()) + "\t"
+                    + event.getInput());
+            }
+            System.err.println(count + " events");
+        } catch (IOException e) {
+            System.err.println("Error reading analysis log: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package main;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.text.AttributedString;
+import java.util.ArrayList;
+import java.util.List;
+
+// The type/mood/subject/verb/object table under the visualization, painted directly.
+// Cell text is wrapped into TextLayouts once per analysis (and again only if the width changes),
+// so showing an analysis costs a layout of a few strings and a repaint, with no HTML parsing.
+public class AnalysisTable extends JComponent {
+    private static final Font HEADER_FONT = new Font("Segoe UI", Font.BOLD, 14);
+    private static final Font CELL_FONT = new Font("Segoe UI", Font.PLAIN, 12);
+    private static final String[] HEADERS = {"Sentence Type", "Mood", "Subject(s)", "Verb(s)", "Object(s)"};
+    private static final float[] COLUMN_WEIGHTS = {3, 2, 2, 2, 2};
+    private static final int PADDING = 10;       // Around the table
+    private static final int CELL_PADDING = 5;   // Inside each cell
+    private static final int DEFAULT_WIDTH = 600;
+
+    private final Color headerColor;
+    private final Color[] columnColors;
+    private final Cell[] header = new Cell[HEADERS.length];
+    private final List<Cell[]> rows = new ArrayList<>();
+    private int layoutWidth = -1;  // Width the cells were last wrapped for
+    private int headerWidth = -1;  // Width the header was last wrapped for; it doesn't change with the analysis
+    private int headerHeight;
+    private int[] rowHeights = new int[0];
+    private int tableHeight;
+
+    // columnColors: text color for each of the five columns
+    public AnalysisTable(Color headerColor, Color... columnColors) {
+        this.headerColor = headerColor;
+        this.columnColors = columnColors.clone();
+        for (int i = 0; i < HEADERS.length; i++) {
+            header[i] = new Cell(HEADERS[i], HEADER_FONT);
+        }
+        setOpaque(false);
+    }
+
+    // Shows one row per analysis, or nothing for an empty list
+    public void setAnalyses(List<ExpertSystem.SentenceAnalysis> analyses) {
+        rows.clear();
+        for (ExpertSystem.SentenceAnalysis analysis : analyses) {
+            rows.add(new Cell[] {
+                new Cell("⚡ " + capitalize(analysis.getSentenceType()) + " Sentence", CELL_FONT),
+                new Cell(capitalize(analysis.getMood()), CELL_FONT),
+                new Cell(join(analysis.getSubjects()), CELL_FONT),
+                new Cell(join(analysis.getVerbs()), CELL_FONT),
+                new Cell(join(analysis.getObjects()), CELL_FONT)
+            });
+        }
+        layoutWidth = -1;
+        revalidate();
+        repaint();
+    }
+
+    public void clear() {
+        setAnalyses(new ArrayList<>());
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) return super.getPreferredSize();
+        int width = getWidth() > 0 ? getWidth() : getParent() != null && getParent().getWidth() > 0
+            ? getParent().getWidth() : DEFAULT_WIDTH;
+        layoutCells(width);
+        return new Dimension(width, rows.isEmpty() ? 0 : tableHeight + 2 * PADDING);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (rows.isEmpty()) return;
+        int previousHeight = tableHeight;
+        layoutCells(getWidth());
+        if (tableHeight != previousHeight) {
+            revalidate();
+        }
+
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        int y = PADDING;
+        paintRow(g2d, header, y, rowHeights[0], null);
+        y += rowHeights[0];
+        for (int r = 0; r < rows.size(); r++) {
+            paintRow(g2d, rows.get(r), y, rowHeights[r + 1], columnColors);
+            y += rowHeights[r + 1];
+        }
+        g2d.dispose();
+    }
+
+    private void paintRow(Graphics2D g2d, Cell[] cells, int top, int height, Color[] colors) {
+        float x = PADDING;
+        float tableWidth = Math.max(0, layoutWidth - 2 * PADDING);
+        for (int c = 0; c < cells.length; c++) {
+            float columnWidth = tableWidth * COLUMN_WEIGHTS[c] / totalWeight();
+            g2d.setColor(colors == null ? headerColor : colors[c]);
+            // Cells are vertically centered in the row, like the old table's default alignment
+            float y = top + (height - cells[c].height) / 2f;
+            for (TextLayout line : cells[c].lines) {
+                y += line.getAscent();
+                line.draw(g2d, x + (columnWidth - line.getAdvance()) / 2, y);
+                y += line.getDescent() + line.getLeading();
+            }
+            x += columnWidth;
+        }
+    }
+
+    // Wraps every cell for the given component width; a no-op when nothing changed
+    private void layoutCells(int width) {
+        if (width == layoutWidth) return;
+        layoutWidth = width;
+        FontRenderContext frc = new FontRenderContext(null, true, true);
+        float tableWidth = Math.max(0, width - 2 * PADDING);
+        rowHeights = new int[rows.size() + 1];
+        if (width != headerWidth) {
+            headerWidth = width;
+            headerHeight = layoutRow(header, frc, tableWidth);
+        }
+        rowHeights[0] = headerHeight;
+        tableHeight = rowHeights[0];
+        for (int r = 0; r < rows.size(); r++) {
+            rowHeights[r + 1] = layoutRow(rows.get(r), frc, tableWidth);
+            tableHeight += rowHeights[r + 1];
+        }
+    }
+
+    private static int layoutRow(Cell[] cells, FontRenderContext frc, float tableWidth) {
+        float height = 0;
+        for (int c = 0; c < cells.length; c++) {
+            float wrapWidth = Math.max(1, tableWidth * COLUMN_WEIGHTS[c] / totalWeight() - 2 * CELL_PADDING);
+            height = Math.max(height, cells[c].layout(frc, wrapWidth));
+        }
+        return (int) Math.ceil(height) + 2 * CELL_PADDING;
+    }
+
+    private static float totalWeight() {
+        float total = 0;
+        for (float weight : COLUMN_WEIGHTS) {
+            total += weight;
+        }
+        return total;
+    }
+
+    private static String join(List<String> words) {
+        return words.isEmpty() ? "N/A" : String.join(", ", words);
+    }
+
+    private static String capitalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1).toLowerCase();
+    }
+
+    // One cell's text and its wrapped lines
+    private static final class Cell {
+        private final String text;
+        private final Font font;
+        private TextLayout[] lines = new TextLayout[0];
+        private float height;
+
+        Cell(String text, Font font) {
+            this.text = text == null ? "" : text;
+            this.font = font;
+        }
+
+        // Breaks the text into lines no wider than wrapWidth and returns their total height
+        float layout(FontRenderContext frc, float wrapWidth) {
+            if (text.isEmpty()) {
+                lines = new TextLayout[0];
+                height = 0;
+                return height;
+            }
+            AttributedString attributed = new AttributedString(text);
+            attributed.addAttribute(TextAttribute.FONT, font);
+            LineBreakMeasurer measurer = new LineBreakMeasurer(attributed.getIterator(), frc);
+            List<TextLayout> wrapped = new ArrayList<>(1);
+            height = 0;
+            while (measurer.getPosition() < text.length()) {
+                TextLayout line = measurer.nextLayout(wrapWidth);
+                wrapped.add(line);
+                height += line.getAscent() + line.getDescent() + line.getLeading();
+            }
+            lines = wrapped.toArray(new TextLayout[0]);
+            return height;
+        }
+    }
+}
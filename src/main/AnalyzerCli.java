@@ -0,0 +1,90 @@
+package main;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+// Headless command-line analyzer for scripts and short-lived jobs; no AWT or Swing is loaded.
+// Analyzes each argument (or each stdin line when there are none) as a paragraph; pronouns resolve
+// across the whole invocation.
+//
+//   java main.AnalyzerCli [-tsv] [-lang es] [-plausible] ["sentence" ...]
+//
+// -tsv prints one tab-separated line per sentence: text, type, mood, subjects, verbs, objects.
+// -plausible drops sentences the language's n-gram model scores as garbage (see NgramModel).
+// -lang picks the language (a tag with a bundled lexicon, see LexiconRegistry); English by default.
+//
+// Native executable (GraalVM): res/META-INF/native-image/language-analysis holds the build options.
+// The default lexicon and its spelling index are built while the image is built and stored in its
+// heap, so a run starts with them ready instead of parsing en.lex and keywords.txt:
+//   javac -d bin src/main/*.java
+//   native-image -cp bin:res -o analyze main.AnalyzerCli
+//   ./analyze "The cat will see the dog."
+public class AnalyzerCli {
+    public static void main(String[] args) throws IOException {
+        boolean tsv = false, plausibleOnly = false;
+        Lexicon lexicon = null;
+        int first = 0;
+        while (first < args.length) {
+            if (args[first].equals("-tsv")) {
+                tsv = true;
+                first++;
+            } else if (args[first].equals("-plausible")) {
+                plausibleOnly = true;
+                first++;
+            } else if (args[first].equals("-lang") && first + 1 < args.length) {
+                try {
+                    lexicon = LexiconRegistry.get(Locale.forLanguageTag(args[first + 1]));
+                } catch (IllegalArgumentException e) {
+                    System.err.println(e.getMessage());
+                    System.exit(1);
+                }
+                first += 2;
+            } else {
+                break;
+            }
+        }
+        if (lexicon == null) {
+            lexicon = LexiconRegistry.getDefault();
+        }
+        PrintStream out = new PrintStream(System.out, false, StandardCharsets.UTF_8.name());
+        CoreferenceResolver resolver = new CoreferenceResolver(16);
+        if (first < args.length) {
+            for (int i = first; i < args.length; i++) {
+                print(out, ExpertSystem.analyzeParagraph(args[i], resolver, lexicon), tsv, plausibleOnly);
+            }
+        } else {
+            BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    print(out, ExpertSystem.analyzeParagraph(line, resolver, lexicon), tsv, plausibleOnly);
+                }
+            }
+        }
+        out.flush();
+    }
+
+    private static void print(PrintStream out, List<ExpertSystem.SentenceAnalysis> analyses, boolean tsv, boolean plausibleOnly) {
+        for (ExpertSystem.SentenceAnalysis analysis : analyses) {
+            if (plausibleOnly && !analysis.isPlausible()) continue;
+            if (tsv) {
+                out.println(String.join("\t", clean(analysis.getText()), analysis.getSentenceType(), analysis.getMood(),
+                    String.join(",", analysis.getSubjects()), String.join(",", analysis.getVerbs()),
+                    String.join(",", analysis.getObjects())));
+            } else {
+                out.println(analysis.getText());
+                out.println(analysis);
+            }
+        }
+    }
+
+    // Tabs and newlines would break the TSV columns
+    private static String clean(String text) {
+        return text.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
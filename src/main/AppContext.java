@@ -0,0 +1,149 @@
+package main;
+
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.swing.ImageIcon;
+
+// Resources shared by every window of the running game: the sound clips, the scaled keyword images
+// and the lexicon. Windows acquire() the context when they open and release() it when they are
+// disposed. The first acquire creates it; the last release closes the clips (giving their audio
+// lines back to the mixer) and flushes the cached images, so any number of play/menu cycles holds
+// one set of each instead of one per window. Icons are cached per stored picture, not per word, so
+// words whose images share a blob in the ImageStore ("cat", "kitten") share one decoded icon.
+public final class AppContext {
+    // Scaled icons kept across windows, least recently used dropped first: -Dimages.cacheSize=<icons>
+    private static final int ICON_CACHE_SIZE = Math.max(16, Integer.getInteger("images.cacheSize", 256));
+
+    private static AppContext instance;
+    private static int references;  // Both guarded by AppContext.class
+
+    private final SoundManager sound = new SoundManager();
+    private final Map<String, ImageIcon> icons = new LinkedHashMap<String, ImageIcon>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImageIcon> eldest) {
+            if (size() <= ICON_CACHE_SIZE) return false;
+            flush(eldest.getValue());
+            return true;
+        }
+    };
+    // Word -> its resolved image (null for none), so spelling correction and "no image" run once per word
+    private final Map<String, URL> images = new LinkedHashMap<String, URL>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, URL> eldest) {
+            return size() > ICON_CACHE_SIZE;
+        }
+    };
+    private boolean closed;
+
+    private AppContext() {
+    }
+
+    // Returns the shared context, creating it if no window holds it; pair every call with release()
+    public static synchronized AppContext acquire() {
+        if (instance == null) {
+            instance = new AppContext();
+        }
+        references++;
+        return instance;
+    }
+
+    // Gives back one reference; the last one closes the context
+    public void release() {
+        synchronized (AppContext.class) {
+            if (instance != this) {
+                throw new IllegalStateException("AppContext released more often than acquired");
+            }
+            if (--references > 0) return;
+            instance = null;
+        }
+        close();
+    }
+
+    // Number of outstanding acquire() calls, for leak checks
+    static synchronized int references() {
+        return references;
+    }
+
+    public SoundManager getSound() {
+        return sound;
+    }
+
+    // The lexicon analyses in the game use (the registry's shared default)
+    public Lexicon getLexicon() {
+        return LexiconRegistry.getDefault();
+    }
+
+    // Whether a scaled icon for the word is already cached (including a cached "no image")
+    public synchronized boolean isIconCached(String word, int size) {
+        String lower = word.toLowerCase();
+        if (!images.containsKey(lower)) return false;
+        URL url = images.get(lower);
+        return url == null || icons.containsKey(iconKey(url, size));
+    }
+
+    // Returns the word's image scaled to size x size, decoding it on first use; null if the word has no image
+    public ImageIcon getScaledIcon(String word, int size) {
+        URL url = imageFor(word);
+        if (url == null) return null;
+        String key = iconKey(url, size);
+        synchronized (this) {
+            if (icons.containsKey(key)) {
+                return icons.get(key);
+            }
+        }
+        // Decoded outside the lock; two windows racing for the same icon just decode it twice
+        ImageIcon icon = ImageMapper.getScaledIcon(url, size, size);
+        synchronized (this) {
+            if (!closed) {
+                icons.put(key, icon);
+            }
+        }
+        return icon;
+    }
+
+    private URL imageFor(String word) {
+        String lower = word.toLowerCase();
+        synchronized (this) {
+            if (images.containsKey(lower)) {
+                return images.get(lower);
+            }
+        }
+        URL url = ImageMapper.getImageURL(word);
+        if (url == null) {
+            System.err.println("Couldn't find image for: " + word);
+        }
+        synchronized (this) {
+            if (!closed) {
+                images.put(lower, url);
+            }
+        }
+        return url;
+    }
+
+    synchronized int cachedIcons() {
+        return icons.size();
+    }
+
+    private void close() {
+        sound.close();
+        synchronized (this) {
+            closed = true;
+            for (ImageIcon icon : icons.values()) {
+                flush(icon);
+            }
+            icons.clear();
+            images.clear();
+        }
+    }
+
+    private static String iconKey(URL url, int size) {
+        return size + ":" + url.toExternalForm();
+    }
+
+    private static void flush(ImageIcon icon) {
+        if (icon != null) {
+            icon.getImage().flush();
+        }
+    }
+}
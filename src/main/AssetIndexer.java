@@ -0,0 +1,29 @@
+package main;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Build-time tool that regenerates res/assets.idx, the list of packaged resources read by Resources.
+// Run it after adding or removing files under res: java main.AssetIndexer [res]
+public class AssetIndexer {
+    public static void main(String[] args) throws IOException {
+        Path root = Paths.get(args.length > 0 ? args[0] : "res");
+        List<String> paths = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                String path = root.relativize(file).toString().replace(File.separatorChar, '/');
+                if (!path.equals(Resources.INDEX_NAME)) {
+                    paths.add(path);
+                }
+            });
+        }
+        Collections.sort(paths);
+        Files.write(root.resolve(Resources.INDEX_NAME), paths, StandardCharsets.UTF_8);
+        System.out.println("Indexed " + paths.size() + " assets");
+    }
+}
@@ -0,0 +1,77 @@
+package main;
+
+import java.nio.ByteBuffer;
+
+// Bloom filter over strings: answers "definitely absent" or "maybe present" with a fixed bit budget.
+// The bits live in a ByteBuffer, so a filter written into a file can be memory-mapped and queried
+// in place without loading it onto the heap.
+public class BloomFilter {
+    private final ByteBuffer bits;
+    private final long bitCount;
+    private final int hashes;
+
+    // Sizes the filter for the expected number of keys at the given bits per key (10 gives ~1% false positives)
+    public static BloomFilter create(long expectedKeys, int bitsPerKey) {
+        long bytes = Math.max(8, (Math.max(1, expectedKeys) * bitsPerKey + 7) / 8);
+        if (bytes > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Bloom filter too large: " + bytes + " bytes");
+        }
+        // Optimal hash count is ln 2 * bits per key
+        int hashes = Math.max(1, (int) Math.round(bitsPerKey * 0.693));
+        return new BloomFilter(ByteBuffer.allocate((int) bytes), hashes);
+    }
+
+    // Wraps existing filter bits, e.g. a mapped region of a file
+    public BloomFilter(ByteBuffer bits, int hashes) {
+        this.bits = bits;
+        this.bitCount = (long) bits.capacity() * 8;
+        this.hashes = hashes;
+    }
+
+    public void add(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0xC2B2AE3D27D4EB4FL) | 1;  // Double hashing: probe i is h1 + i * h2
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int index = (int) (bit >>> 3);
+            bits.put(index, (byte) (bits.get(index) | (1 << (bit & 7))));
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 3)) & (1 << (bit & 7))) == 0) return false;
+        }
+        return true;
+    }
+
+    public int hashes() {
+        return hashes;
+    }
+
+    public ByteBuffer bits() {
+        return bits.duplicate();
+    }
+
+    // 64-bit FNV-1a over the string's chars, finished with a MurmurHash3 mix.
+    // Part of the file format: changing it invalidates filters already written to disk
+    private static long hash(String key) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -5,8 +5,8 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.RoundRectangle2D;
-import java.util.ArrayList;
-import java.util.List;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
 import java.util.Random;
 
 public class Buttons extends JFrame implements ActionListener {
@@ -17,6 +17,36 @@ public class Buttons extends JFrame implements ActionListener {
     private static final Color DARK_BG_COLOR = new Color(30, 30, 30);
     private static final Color DARK_MAIN_COLOR = new Color(60, 120, 170);
     private static final Color DARK_HOVER_COLOR = new Color(90, 139, 227);
+    private static final Color GRADIENT_END_COLOR = new Color(230, 240, 250);
+    private static final Color DARK_GRADIENT_END_COLOR = new Color(40, 40, 40);
+    private static final Color SHADOW_COLOR = new Color(0, 0, 0, 50);
+
+    // Background animation: ~60 fps, tuned so motion matches the original 50 ms ticks
+    private static final int FRAME_MS = 16;
+    private static final float FRAME_SCALE = FRAME_MS / 50f;
+    private static final int MAX_ELEMENTS = 64;
+    private static final int ALPHA_LEVELS = 20;
+    private static final String[] LANGUAGE_TERMS = {
+        "Syntax", "Semantics", "Morphology", "Phonology", "Grammar",
+        "Lexicon", "Discourse", "Pragmatics", "Etymology", "Linguistics"
+    };
+    private static final Color[] SOFT_COLORS = {
+        new Color(70, 130, 180),
+        new Color(100, 149, 237),
+        new Color(60, 120, 170),
+        new Color(90, 139, 227)
+    };
+    private static final Font[] ELEMENT_FONTS = new Font[12];
+    private static final AlphaComposite[] ALPHA_COMPOSITES = new AlphaComposite[ALPHA_LEVELS + 1];
+
+    static {
+        for (int i = 0; i < ELEMENT_FONTS.length; i++) {
+            ELEMENT_FONTS[i] = new Font("Segoe UI", Font.PLAIN, i + 10);
+        }
+        for (int i = 0; i <= ALPHA_LEVELS; i++) {
+            ALPHA_COMPOSITES[i] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) i / ALPHA_LEVELS);
+        }
+    }
 
     // UI Components
     private JButton playButton, optionButton, exitButton;
@@ -27,15 +57,27 @@ public class Buttons extends JFrame implements ActionListener {
     private JDialog settingsDialog;
     
     // Animation and Sound
+    private final AppContext context;
     private SoundManager sound;
-    private List<AnimatedElement> backgroundElements;
+    private AnimatedElement[] backgroundElements;
+    private BufferedImage[] textSprites;
+    private int[] textSpriteAscents;
+    private VolatileImage backgroundImage;
+    private boolean backgroundDarkMode;
     private Timer animationTimer;
     private Random random;
 
     public Buttons() {
-        this.sound = new SoundManager();
-        this.backgroundElements = new ArrayList<>();
+        // Held for the life of the menu, so the clips stay open across play sessions
+        this.context = AppContext.acquire();
+        this.sound = context.getSound();
         this.random = new Random();
+        this.backgroundElements = new AnimatedElement[MAX_ELEMENTS];
+        for (int i = 0; i < MAX_ELEMENTS; i++) {
+            backgroundElements[i] = new AnimatedElement();
+        }
+        this.textSprites = new BufferedImage[LANGUAGE_TERMS.length * ELEMENT_FONTS.length * SOFT_COLORS.length];
+        this.textSpriteAscents = new int[textSprites.length];
         
         // Undecorated frame with custom shape
         setUndecorated(true);
@@ -59,23 +101,18 @@ public class Buttons extends JFrame implements ActionListener {
         JPanel mainPanel = new JPanel() {
             @Override
             protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
                 Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                
-                // Gradient Background
-                int w = getWidth();
-                int h = getHeight();
-                Color startColor = darkMode ? DARK_BG_COLOR : BACKGROUND_COLOR;
-                Color endColor = darkMode ? new Color(40, 40, 40) : new Color(230, 240, 250);
-                GradientPaint gp = new GradientPaint(0, 0, startColor, w, h, endColor);
-                g2d.setPaint(gp);
-                g2d.fillRect(0, 0, w, h);
+
+                // Gradient Background, cached in an accelerated image
+                drawBackground(g2d, this);
 
                 // Draw Animated Background Elements
                 for (AnimatedElement element : backgroundElements) {
-                    element.draw(g2d);
+                    if (element.active) {
+                        element.draw(g2d);
+                    }
                 }
+                g2d.setComposite(AlphaComposite.SrcOver);
             }
         };
         mainPanel.setLayout(new GridBagLayout());
@@ -110,23 +147,26 @@ public class Buttons extends JFrame implements ActionListener {
 
     private JLabel TitleLabel(String text) {
         JLabel label = new JLabel(text, SwingConstants.CENTER) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2d = (Graphics2D) g;
+            private final SkinCache skin = new SkinCache((g2d, state, dark, w, h) -> {
                 g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
                 
                 // Soft Shadow
-                g2d.setColor(new Color(0, 0, 0, 50));
-                g2d.drawString(getText(), 3, getHeight() - 4);
+                g2d.setColor(SHADOW_COLOR);
+                g2d.drawString(getText(), 3, h - 4);
                 
                 // Gradient Text Color
                 GradientPaint textGradient = new GradientPaint(
-                    0, 0, darkMode ? DARK_MAIN_COLOR : MAIN_COLOR, 
-                    getWidth(), getHeight(), 
-                    darkMode ? DARK_HOVER_COLOR : HOVER_COLOR
+                    0, 0, dark ? DARK_MAIN_COLOR : MAIN_COLOR, 
+                    w, h, 
+                    dark ? DARK_HOVER_COLOR : HOVER_COLOR
                 );
                 g2d.setPaint(textGradient);
-                g2d.drawString(getText(), 0, getHeight() - 7);
+                g2d.drawString(getText(), 0, h - 7);
+            });
+
+            @Override
+            protected void paintComponent(Graphics g) {
+                skin.paint(g, this, getText(), SkinCache.NORMAL, darkMode);
             }
         };
         label.setFont(new Font("Segoe UI", Font.BOLD, 36));
@@ -136,30 +176,33 @@ public class Buttons extends JFrame implements ActionListener {
 
     private JButton StyledButton(String text, String actionCommand) {
         JButton button = new JButton(text) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2d = (Graphics2D) g;
+            private final SkinCache skin = new SkinCache((g2d, state, dark, w, h) -> {
                 g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
                 
                 RoundRectangle2D.Float shape = new RoundRectangle2D.Float(
-                    0, 0, getWidth() - 1, getHeight() - 1, 15, 15
+                    0, 0, w - 1, h - 1, 15, 15
                 );
                 
                 // Dynamic Button Color
-                Color baseColor = darkMode ? DARK_MAIN_COLOR : MAIN_COLOR;
-                Color hoverColor = darkMode ? DARK_HOVER_COLOR : HOVER_COLOR;
+                Color baseColor = dark ? DARK_MAIN_COLOR : MAIN_COLOR;
+                Color hoverColor = dark ? DARK_HOVER_COLOR : HOVER_COLOR;
                 
-                g2d.setColor(getModel().isPressed() ? baseColor.darker() 
-                    : getModel().isRollover() ? hoverColor : baseColor);
+                g2d.setColor(state == SkinCache.PRESSED ? baseColor.darker() 
+                    : state == SkinCache.HOVER ? hoverColor : baseColor);
                 
                 g2d.fill(shape);
                 
                 // Text Rendering
                 g2d.setColor(Color.WHITE);
                 g2d.drawString(getText(), 
-                    (getWidth() - g2d.getFontMetrics().stringWidth(getText())) / 2, 
-                    (getHeight() + g2d.getFontMetrics().getAscent()) / 2 - 4
+                    (w - g2d.getFontMetrics().stringWidth(getText())) / 2, 
+                    (h + g2d.getFontMetrics().getAscent()) / 2 - 4
                 );
+            });
+
+            @Override
+            protected void paintComponent(Graphics g) {
+                skin.paint(g, this, getText(), SkinCache.stateOf(getModel()), darkMode);
             }
         };
         
@@ -225,6 +268,7 @@ public class Buttons extends JFrame implements ActionListener {
         switch (command) {
             case "PLAY":
                 fadeOut(() -> {
+                    animationTimer.stop();
                     setVisible(false);
                     puzzleGame = new Game(this, darkMode);
                     puzzleGame.setVisible(true);
@@ -235,7 +279,10 @@ public class Buttons extends JFrame implements ActionListener {
                 showSettingsDialog();
                 break;
             case "EXIT":
-                fadeOut(() -> System.exit(0));
+                fadeOut(() -> {
+                    context.release();
+                    System.exit(0);
+                });
                 break;
             case "SAVE":
                 darkMode = themeComboBox.getSelectedIndex() == 1;
@@ -257,24 +304,95 @@ public class Buttons extends JFrame implements ActionListener {
     }
 
     private void startBackgroundAnimation() {
-        animationTimer = new Timer(50, e -> {
+        animationTimer = new Timer(FRAME_MS, e -> {
             updateBackgroundElements();
             repaint();
         });
+        animationTimer.setCoalesce(true);
         animationTimer.start();
     }
 
     private void updateBackgroundElements() {
-        // Occasionally add new elements
-        if (random.nextInt(50) < 5) {
-            backgroundElements.add(new AnimatedElement(getWidth(), getHeight()));
+        // Occasionally add new elements (same rate as the original 5-in-50 chance per 50 ms)
+        boolean spawn = random.nextFloat() < 0.1f * FRAME_SCALE;
+
+        // Update elements and recycle off-screen ones
+        for (AnimatedElement element : backgroundElements) {
+            if (element.active) {
+                element.update();
+                if (element.isOffScreen()) {
+                    element.active = false;
+                }
+            } else if (spawn) {
+                element.spawn(getWidth());
+                spawn = false;
+            }
         }
+    }
 
-        // Update and remove off-screen elements
-        backgroundElements.removeIf(element -> {
-            element.update();
-            return element.isOffScreen();
-        });
+    // Paints the gradient from a VolatileImage, re-rendering it only on size/theme change or surface loss
+    private void drawBackground(Graphics2D g2d, JComponent panel) {
+        int w = panel.getWidth();
+        int h = panel.getHeight();
+        GraphicsConfiguration gc = panel.getGraphicsConfiguration();
+        if (gc == null) {
+            renderGradient(g2d, w, h);
+            return;
+        }
+        do {
+            int status = backgroundImage == null || backgroundImage.getWidth() != w || backgroundImage.getHeight() != h
+                ? VolatileImage.IMAGE_INCOMPATIBLE : backgroundImage.validate(gc);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                if (backgroundImage != null) {
+                    backgroundImage.flush();
+                }
+                backgroundImage = gc.createCompatibleVolatileImage(w, h);
+                renderBackgroundImage(w, h);
+            } else if (status == VolatileImage.IMAGE_RESTORED || backgroundDarkMode != darkMode) {
+                renderBackgroundImage(w, h);
+            }
+            g2d.drawImage(backgroundImage, 0, 0, null);
+        } while (backgroundImage.contentsLost());
+    }
+
+    private void renderBackgroundImage(int w, int h) {
+        Graphics2D g2d = backgroundImage.createGraphics();
+        renderGradient(g2d, w, h);
+        g2d.dispose();
+        backgroundDarkMode = darkMode;
+    }
+
+    private void renderGradient(Graphics2D g2d, int w, int h) {
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        Color startColor = darkMode ? DARK_BG_COLOR : BACKGROUND_COLOR;
+        Color endColor = darkMode ? DARK_GRADIENT_END_COLOR : GRADIENT_END_COLOR;
+        g2d.setPaint(new GradientPaint(0, 0, startColor, w, h, endColor));
+        g2d.fillRect(0, 0, w, h);
+    }
+
+    // Returns the pre-rendered image of a term in a given size and color, rendering it on first use
+    private BufferedImage textSprite(int index) {
+        int color = index % SOFT_COLORS.length;
+        int size = (index / SOFT_COLORS.length) % ELEMENT_FONTS.length;
+        int term = index / (SOFT_COLORS.length * ELEMENT_FONTS.length);
+        BufferedImage sprite = textSprites[index];
+        if (sprite == null) {
+            Font font = ELEMENT_FONTS[size];
+            FontMetrics fm = getFontMetrics(font);
+            int width = Math.max(1, fm.stringWidth(LANGUAGE_TERMS[term]));
+            int height = Math.max(1, fm.getHeight());
+            GraphicsConfiguration gc = getGraphicsConfiguration();
+            sprite = gc != null ? gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2d = sprite.createGraphics();
+            g2d.setFont(font);
+            g2d.setColor(SOFT_COLORS[color]);
+            g2d.drawString(LANGUAGE_TERMS[term], 0, fm.getAscent());
+            g2d.dispose();
+            textSprites[index] = sprite;
+            textSpriteAscents[index] = fm.getAscent();
+        }
+        return sprite;
     }
 
     private void fadeIn() {
@@ -310,32 +428,24 @@ public class Buttons extends JFrame implements ActionListener {
       });
       fadeTimer.start();
   }
+    // Pooled background element; spawn() recycles an inactive slot instead of allocating
     private class AnimatedElement {
-        private String text;
+        private boolean active;
+        private int spriteIndex;
         private float x, y;
         private float speed;
-        private float alpha;
-        private Color color;
-        private Font font;
+        private int alphaLevel;
 
-        public AnimatedElement(int maxWidth, int maxHeight) {
-            this.text = getRandomLanguageTerm();
+        public void spawn(int maxWidth) {
+            int term = random.nextInt(LANGUAGE_TERMS.length);
+            int size = random.nextInt(ELEMENT_FONTS.length);
+            int color = random.nextInt(SOFT_COLORS.length);
+            this.spriteIndex = (term * ELEMENT_FONTS.length + size) * SOFT_COLORS.length + color;
             this.x = random.nextFloat() * maxWidth;
             this.y = -50;  // Start above the visible area
-            this.speed = random.nextFloat() * 2 + 0.5f;
-            this.alpha = 0.1f + random.nextFloat() * 0.5f;
-            this.color = generateSoftColor();
-            this.font = new Font("Segoe UI", Font.PLAIN, random.nextInt(12) + 10);
-        }
-
-        private Color generateSoftColor() {
-            Color[] softColors = {
-                new Color(70, 130, 180, 100),
-                new Color(100, 149, 237, 100),
-                new Color(60, 120, 170, 100),
-                new Color(90, 139, 227, 100)
-            };
-            return softColors[random.nextInt(softColors.length)];
+            this.speed = (random.nextFloat() * 2 + 0.5f) * FRAME_SCALE;
+            this.alphaLevel = Math.round((0.1f + random.nextFloat() * 0.5f) * ALPHA_LEVELS);
+            this.active = true;
         }
 
         public void update() {
@@ -343,27 +453,20 @@ public class Buttons extends JFrame implements ActionListener {
         }
 
         public void draw(Graphics2D g2d) {
-            g2d.setFont(font);
-            g2d.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), (int)(alpha * 255)));
-            g2d.drawString(text, x, y);
+            BufferedImage sprite = textSprite(spriteIndex);
+            g2d.setComposite(ALPHA_COMPOSITES[alphaLevel]);
+            g2d.drawImage(sprite, (int) x, (int) y - textSpriteAscents[spriteIndex], null);
         }
 
         public boolean isOffScreen() {
             return y > 700;  // Adjusted for typical window height
         }
-
-        private String getRandomLanguageTerm() {
-            String[] terms = {
-                "Syntax", "Semantics", "Morphology", "Phonology", "Grammar", 
-                "Lexicon", "Discourse", "Pragmatics", "Etymology", "Linguistics"
-            };
-            return terms[random.nextInt(terms.length)];
-        }
     }
 
     // Reopen menu method remains the same
     public void reOpenMenu() {
         setVisible(true);
+        animationTimer.start();
         sound.playBackgroundMusic();
         fadeIn();
     }
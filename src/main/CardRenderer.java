@@ -0,0 +1,257 @@
+package main;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Headless bulk renderer for the subject/verb/object visualization the game shows.
+// Each sentence becomes a PNG card drawn straight into a BufferedImage (no Swing components),
+// using the game's light-theme colors. Scaled keyword images are decoded once and shared by all
+// workers. Cards are rendered and PNG-encoded in parallel and streamed into a zip or a directory.
+//
+// Usage: java main.CardRenderer <sentences.txt> <out.zip | out-dir> [-threads N]
+// (one sentence per line; java.awt.headless is forced on)
+public class CardRenderer {
+    static final int WIDTH = 800;
+    static final int HEIGHT = 480;
+    private static final int IMAGE_SIZE = 200;
+    private static final int THUMBNAIL_SIZE = 110;
+    private static final int MAX_THUMBNAILS = 3;  // Per side when an analysis has several subjects/objects
+
+    private static final Font MESSAGE_FONT = new Font("Segoe UI", Font.BOLD, 18);
+    private static final Font CAPTION_FONT = new Font("Segoe UI", Font.BOLD, 14);
+    private static final Font HEADER_FONT = new Font("Segoe UI", Font.BOLD, 14);
+    private static final Font CELL_FONT = new Font("Segoe UI", Font.PLAIN, 12);
+    private static final String[] HEADERS = {"Sentence Type", "Mood", "Subject(s)", "Verb(s)", "Object(s)"};
+    private static final float[] COLUMN_WIDTHS = {0.3f, 0.175f, 0.175f, 0.175f, 0.175f};
+
+    // word -> its stored picture (empty when the word has no image)
+    private final ConcurrentHashMap<String, Optional<URL>> imageUrls = new ConcurrentHashMap<>();
+    // size + picture -> scaled image (empty when it can't be decoded)
+    private final ConcurrentHashMap<String, Optional<BufferedImage>> scaledImages = new ConcurrentHashMap<>();
+
+    // Draws one analysis card
+    public BufferedImage render(ExpertSystem.SentenceAnalysis analysis) {
+        BufferedImage card = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = card.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setColor(Color.WHITE);
+        g2d.fillRect(0, 0, WIDTH, HEIGHT);
+        g2d.setColor(Game.PRIMARY_COLOR);
+        g2d.setStroke(new BasicStroke(2));
+        g2d.drawRoundRect(1, 1, WIDTH - 3, HEIGHT - 3, 10, 10);
+
+        List<String> subjects = analysis.getSubjects();
+        List<String> objects = analysis.getObjects();
+        if (!analysis.isSentence() && subjects.isEmpty()) {
+            drawCentered(g2d, "Not a sentence", MESSAGE_FONT, Game.ERROR_COLOR, WIDTH / 2, 40);
+        } else if (!analysis.isSentence()) {
+            drawCentered(g2d, "Single word identified: " + capitalize(subjects.get(0)), MESSAGE_FONT, Game.SUCCESS_COLOR, WIDTH / 2, 40);
+            drawComponent(g2d, "Word: " + capitalize(subjects.get(0)), subjects.get(0), WIDTH / 2, 70, IMAGE_SIZE);
+        } else {
+            drawCentered(g2d, "Analysis complete! " + analysis.getSentenceType() + " sentence identified.",
+                MESSAGE_FONT, Game.SUCCESS_COLOR, WIDTH / 2, 40);
+            if (subjects.size() > 1 || objects.size() > 1) {
+                drawGroup(g2d, "Subjects", subjects, WIDTH / 4);
+                drawGroup(g2d, "Objects", objects, WIDTH * 3 / 4);
+            } else {
+                if (!subjects.isEmpty()) {
+                    drawComponent(g2d, "Subject: " + capitalize(subjects.get(0)), subjects.get(0), WIDTH / 4, 70, IMAGE_SIZE);
+                }
+                if (!objects.isEmpty()) {
+                    drawComponent(g2d, "Object: " + capitalize(objects.get(0)), objects.get(0), WIDTH * 3 / 4, 70, IMAGE_SIZE);
+                }
+            }
+            drawTable(g2d, analysis, HEIGHT - 100);
+        }
+        g2d.dispose();
+        return card;
+    }
+
+    // Caption above an image, centered on x
+    private void drawComponent(Graphics2D g2d, String caption, String word, int x, int y, int size) {
+        drawCentered(g2d, caption, CAPTION_FONT, Game.PRIMARY_COLOR, x, y + 14);
+        BufferedImage image = scaledImage(word, size);
+        if (image != null) {
+            g2d.drawImage(image, x - image.getWidth() / 2, y + 24, null);
+        }
+    }
+
+    private void drawGroup(Graphics2D g2d, String title, List<String> words, int x) {
+        if (words.isEmpty()) return;
+        drawCentered(g2d, title, HEADER_FONT, Game.PRIMARY_COLOR, x, 84);
+        int count = Math.min(words.size(), MAX_THUMBNAILS);
+        int spacing = THUMBNAIL_SIZE + 10;
+        int left = x - (count * spacing - 10) / 2;
+        for (int i = 0; i < count; i++) {
+            String word = words.get(i);
+            BufferedImage image = scaledImage(word, THUMBNAIL_SIZE);
+            int cellX = left + i * spacing;
+            if (image != null) {
+                g2d.drawImage(image, cellX + (THUMBNAIL_SIZE - image.getWidth()) / 2, 100, null);
+            }
+            drawCentered(g2d, capitalize(word), CELL_FONT, Color.DARK_GRAY, cellX + THUMBNAIL_SIZE / 2, 100 + THUMBNAIL_SIZE + 18);
+        }
+        if (words.size() > count) {
+            drawCentered(g2d, "+" + (words.size() - count) + " more", CELL_FONT, Color.DARK_GRAY, x, 100 + THUMBNAIL_SIZE + 38);
+        }
+    }
+
+    private void drawTable(Graphics2D g2d, ExpertSystem.SentenceAnalysis analysis, int top) {
+        g2d.setColor(Game.PRIMARY_COLOR);
+        g2d.fillRect(20, top - 10, WIDTH - 40, 2);
+        String[] values = {
+            "⚡ " + capitalize(analysis.getSentenceType()) + " Sentence",
+            capitalize(analysis.getMood()),
+            analysis.getSubjects().isEmpty() ? "N/A" : String.join(", ", analysis.getSubjects()),
+            analysis.getVerbs().isEmpty() ? "N/A" : String.join(", ", analysis.getVerbs()),
+            analysis.getObjects().isEmpty() ? "N/A" : String.join(", ", analysis.getObjects())
+        };
+        Color[] colors = {Game.SECONDARY_COLOR, Game.SECONDARY_COLOR, Game.SUCCESS_COLOR, Game.WARNING_COLOR, Game.SECONDARY_COLOR};
+        float x = 20;
+        float tableWidth = WIDTH - 40;
+        for (int i = 0; i < HEADERS.length; i++) {
+            int center = (int) (x + COLUMN_WIDTHS[i] * tableWidth / 2);
+            drawCentered(g2d, HEADERS[i], HEADER_FONT, Game.PRIMARY_COLOR, center, top + 20);
+            g2d.setFont(CELL_FONT);
+            String value = fit(values[i], g2d.getFontMetrics(), (int) (COLUMN_WIDTHS[i] * tableWidth) - 8);
+            drawCentered(g2d, value, CELL_FONT, colors[i], center, top + 50);
+            x += COLUMN_WIDTHS[i] * tableWidth;
+        }
+    }
+
+    // Shortens text with an ellipsis until it fits the given width
+    private static String fit(String text, FontMetrics fm, int width) {
+        if (fm.stringWidth(text) <= width) return text;
+        int end = text.length();
+        while (end > 0 && fm.stringWidth(text.substring(0, end) + "...") > width) {
+            end--;
+        }
+        return text.substring(0, end) + "...";
+    }
+
+    private static void drawCentered(Graphics2D g2d, String text, Font font, Color color, int x, int baseline) {
+        g2d.setFont(font);
+        g2d.setColor(color);
+        FontMetrics fm = g2d.getFontMetrics();
+        g2d.drawString(text, x - fm.stringWidth(text) / 2, baseline);
+    }
+
+    // Decodes and scales a keyword image once; later cards reuse the scaled copy, also for other
+    // words whose names share the stored picture
+    private BufferedImage scaledImage(String word, int size) {
+        URL url = imageUrls.computeIfAbsent(word.toLowerCase(), key -> Optional.ofNullable(ImageMapper.getImageURL(word))).orElse(null);
+        if (url == null) return null;
+        return scaledImages.computeIfAbsent(size + ":" + url.toExternalForm(), key -> {
+            try {
+                return Optional.of(ImageDecoder.decodeToFit(url, size, size));
+            } catch (IOException e) {
+                System.err.println("Error loading image for " + word + ": " + e.getMessage());
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    private static String capitalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1).toLowerCase();
+    }
+
+    // Encodes a card as PNG (see PngEncoder; ImageIO's writer took several times longer than drawing it)
+    static byte[] encode(BufferedImage card) {
+        return PngEncoder.encode(card);
+    }
+
+    // Where encoded cards go: a zip (entries stored uncompressed, PNG is already compressed) or a directory
+    private interface CardSink extends Closeable {
+        void write(String name, byte[] png) throws IOException;
+    }
+
+    private static CardSink openSink(Path output) throws IOException {
+        if (output.toString().endsWith(".zip")) {
+            ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(output), 256 * 1024));
+            return new CardSink() {
+                public synchronized void write(String name, byte[] png) throws IOException {
+                    ZipEntry entry = new ZipEntry(name);
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(png.length);
+                    CRC32 crc = new CRC32();
+                    crc.update(png);
+                    entry.setCrc(crc.getValue());
+                    zip.putNextEntry(entry);
+                    zip.write(png);
+                    zip.closeEntry();
+                }
+                public void close() throws IOException {
+                    zip.close();
+                }
+            };
+        }
+        Files.createDirectories(output);
+        return new CardSink() {
+            public void write(String name, byte[] png) throws IOException {
+                Files.write(output.resolve(name), png);
+            }
+            public void close() {
+            }
+        };
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length < 2) {
+            System.err.println("Usage: java main.CardRenderer <sentences.txt> <out.zip | out-dir> [-threads N]");
+            System.exit(1);
+        }
+        int threads = args.length > 3 && args[2].equals("-threads")
+            ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        CardRenderer renderer = new CardRenderer();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        // Bounds the cards in flight so huge inputs don't pile up encoded PNGs in memory
+        Semaphore inFlight = new Semaphore(threads * 4);
+        AtomicLong failures = new AtomicLong();
+        long count = 0;
+        long start = System.nanoTime();
+
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8);
+             CardSink sink = openSink(Paths.get(args[1]))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+                String sentence = line;
+                String name = String.format("card-%06d.png", ++count);
+                inFlight.acquire();
+                workers.execute(() -> {
+                    try {
+                        sink.write(name, encode(renderer.render(ExpertSystem.analyzeSentence(sentence))));
+                    } catch (IOException | RuntimeException e) {
+                        failures.incrementAndGet();
+                        System.err.println("Error rendering " + name + ": " + e.getMessage());
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Rendered %d cards in %.2f s (%.0f cards/s, %d threads, %d failed)%n",
+            count - failures.get(), seconds, count / seconds, threads, failures.get());
+    }
+}
@@ -0,0 +1,73 @@
+package main;
+
+import javax.swing.*;
+import java.awt.*;
+
+// A reusable caption + image card for the visualization panel.
+// Cards are created once and kept alive; each analysis only swaps their text and icon,
+// so Swing repaints the labels that changed instead of rebuilding and re-laying out the tree.
+public class ComponentCard extends JPanel {
+    private static final Font TITLE_FONT = new Font("Segoe UI", Font.BOLD, 14);
+    private static final Font PLACEHOLDER_FONT = new Font("Segoe UI", Font.ITALIC, 12);
+
+    private final JLabel captionLabel;
+    private final JLabel imageLabel;
+    private final String placeholder;
+    private String currentWord;
+
+    // imageSize: square size the icon is scaled to
+    // captionBelow: caption under the image (group cards) instead of above it (subject/object cards)
+    // placeholder: text shown when no image exists, or null to leave the image area empty
+    public ComponentCard(int imageSize, int imagePadding, boolean captionBelow, String placeholder,
+                         Color background, Color captionColor, Color placeholderColor) {
+        super(new BorderLayout(5, 5));
+        this.placeholder = placeholder;
+        setBackground(background);
+
+        captionLabel = new JLabel("", SwingConstants.CENTER);
+        captionLabel.setForeground(captionColor);
+        if (!captionBelow) {
+            captionLabel.setFont(TITLE_FONT);
+        }
+
+        imageLabel = new JLabel("", SwingConstants.CENTER);
+        imageLabel.setFont(PLACEHOLDER_FONT);
+        imageLabel.setForeground(placeholderColor);
+        imageLabel.setBorder(BorderFactory.createEmptyBorder(imagePadding, imagePadding, imagePadding, imagePadding));
+        // Fixed size so swapping icons never changes the layout
+        imageLabel.setPreferredSize(new Dimension(imageSize + 2 * imagePadding, imageSize + 2 * imagePadding));
+
+        add(captionLabel, captionBelow ? BorderLayout.SOUTH : BorderLayout.NORTH);
+        add(imageLabel, BorderLayout.CENTER);
+    }
+
+    // Swaps the card's models; JLabel only repaints (and revalidates) when a value actually changes
+    public void setContent(String word, String caption, ImageIcon icon) {
+        if (!caption.equals(captionLabel.getText())) {
+            captionLabel.setText(caption);
+        }
+        if (word.equals(currentWord)) {
+            setVisible(true);
+            return;
+        }
+        currentWord = word;
+        if (icon != null) {
+            imageLabel.setText("");
+            imageLabel.setIcon(icon);
+            imageLabel.setVisible(true);
+        } else if (placeholder != null) {
+            imageLabel.setIcon(null);
+            imageLabel.setText(placeholder);
+            imageLabel.setVisible(true);
+        } else {
+            imageLabel.setIcon(null);
+            imageLabel.setText("");
+            imageLabel.setVisible(false);
+        }
+        setVisible(true);
+    }
+
+    public void hideCard() {
+        setVisible(false);
+    }
+}
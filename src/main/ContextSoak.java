@@ -0,0 +1,147 @@
+package main;
+
+import java.awt.GraphicsEnvironment;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Locale;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Mixer;
+import javax.swing.SwingUtilities;
+
+// Soak check for AppContext: runs many play/menu cycles and fails (exit status 1) if heap, open audio
+// lines or threads keep growing. Like the menu, it holds one reference throughout; every cycle
+// acquires another as a game session does, loads icons, plays a sound, analyzes a sentence and
+// releases it. With -windows (and a display) each cycle also opens and disposes a real Game window.
+// At the end the last reference is released and every audio line must have been given back.
+//
+//   java main.ContextSoak [-cycles 2000] [-windows] [-heap-growth 20]
+public class ContextSoak {
+    private static final String[] WORDS = {"cat", "dog", "bird", "apple", "house", "nosuchword"};
+    private static final int[] SIZES = {150, 200, 400};
+    private static final int SAMPLES = 10;
+
+    public static void main(String[] args) throws Exception {
+        int cycles = 2000;
+        boolean windows = false;
+        double heapGrowth = 20;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-cycles": cycles = Integer.parseInt(args[++i]); break;
+                case "-windows": windows = true; break;
+                case "-heap-growth": heapGrowth = Double.parseDouble(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+        if (windows && GraphicsEnvironment.isHeadless()) {
+            System.out.println("Headless; running without windows");
+            windows = false;
+        }
+
+        int linesBefore = openLines();
+        AppContext menu = AppContext.acquire();
+        long[] first = null, last = null;
+        int interval = Math.max(1, cycles / SAMPLES);
+        for (int cycle = 1; cycle <= cycles; cycle++) {
+            runSession(cycle, windows);
+            if (cycle % interval == 0) {
+                last = sample();
+                // The first sample comes after every icon and clip has been loaded once
+                if (first == null) first = last;
+                System.out.printf(Locale.ROOT, "cycle %6d: heap %6d KB, audio lines %d, threads %d, references %d, icons %d%n",
+                    cycle, last[0] / 1024, last[1], last[2], AppContext.references(), menu.cachedIcons());
+            }
+        }
+
+        boolean failed = false;
+        if (AppContext.references() != 1) {
+            System.out.println("References leaked: " + AppContext.references() + " held, expected 1");
+            failed = true;
+        }
+        if (first != null && last != null) {
+            // A megabyte of slack so a small heap doesn't fail on GC noise
+            long allowed = first[0] + (long) (first[0] * heapGrowth / 100) + (1 << 20);
+            if (last[0] > allowed) {
+                System.out.printf(Locale.ROOT, "Heap grew from %d KB to %d KB%n", first[0] / 1024, last[0] / 1024);
+                failed = true;
+            }
+            if (last[1] > first[1]) {
+                System.out.println("Audio lines grew from " + first[1] + " to " + last[1]);
+                failed = true;
+            }
+            if (last[2] > first[2]) {
+                System.out.println("Threads grew from " + first[2] + " to " + last[2]);
+                failed = true;
+            }
+        }
+
+        menu.release();
+        // Clips close once they have finished loading; give the loader a moment
+        int linesAfter = openLines();
+        for (int wait = 0; wait < 50 && linesAfter > linesBefore; wait++) {
+            Thread.sleep(100);
+            linesAfter = openLines();
+        }
+        if (AppContext.references() != 0 || linesAfter > linesBefore) {
+            System.out.println("After the last release: references " + AppContext.references()
+                + ", audio lines " + linesAfter + " (" + linesBefore + " before)");
+            failed = true;
+        }
+        if (failed) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+        System.out.println("OK");
+        System.exit(0);  // Swing and sound threads would otherwise keep the VM alive
+    }
+
+    // One game session: what Game does between opening and being disposed
+    private static void runSession(int cycle, boolean windows) throws Exception {
+        if (windows) {
+            SwingUtilities.invokeAndWait(() -> {
+                Game game = new Game(null, false);
+                game.setVisible(true);
+                game.dispose();
+            });
+        }
+        AppContext context = AppContext.acquire();
+        try {
+            String word = WORDS[cycle % WORDS.length];
+            for (int size : SIZES) {
+                context.getScaledIcon(word, size);
+            }
+            context.getSound().playNeutralSound();
+            ExpertSystem.analyzeParagraph("The " + word + " sees a dog. It runs.", new CoreferenceResolver(16), context.getLexicon());
+        } finally {
+            context.release();
+        }
+    }
+
+    // Heap used after GC, open audio lines, live threads
+    private static long[] sample() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        return new long[] {
+            memory.getHeapMemoryUsage().getUsed(),
+            openLines(),
+            ManagementFactory.getThreadMXBean().getThreadCount()
+        };
+    }
+
+    // Source lines currently open on any mixer; clips that are never closed show up here
+    private static int openLines() {
+        int open = 0;
+        for (Mixer.Info info : AudioSystem.getMixerInfo()) {
+            try {
+                open += AudioSystem.getMixer(info).getSourceLines().length;
+            } catch (RuntimeException e) {
+                // A mixer that can't be queried holds nothing of ours
+            }
+        }
+        return open;
+    }
+}
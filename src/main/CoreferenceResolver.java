@@ -0,0 +1,93 @@
+package main;
+
+import java.util.Arrays;
+
+// Streaming pronoun resolution across sentences.
+// Remembers the last `capacity` entities (subjects and objects) seen in earlier analyses in a ring
+// buffer and resolves third-person pronouns to the most recent compatible one: he/she/him/her to a
+// singular person, it to a singular thing, they/them to a plural entity. A person is a subject that
+// isn't an object keyword ("boy", "teacher"), or a keyword filed under People; every other entity is
+// a thing, so "He" after "She will read the book" stays unresolved instead of becoming the book.
+// Resolution is O(1) per token and memory stays fixed however long the document or session runs.
+// Not thread safe; use one resolver per document or per session.
+public class CoreferenceResolver {
+    private static final String PERSON_CATEGORY = "People";
+    private static final byte PERSON = 0, THING = 1, PLURAL = 2;
+
+    private final String[] entities;
+    private final byte[] kinds;
+    private int next;
+    private int count;
+    private final int[] latest = {-1, -1, -1};  // Slot of the most recent entity of each kind
+
+    public CoreferenceResolver(int capacity) {
+        this.entities = new String[capacity];
+        this.kinds = new byte[capacity];
+    }
+
+    // Returns the entity a pronoun refers to, or null if it isn't a resolvable pronoun or nothing fits
+    public String resolve(String pronoun) {
+        switch (pronoun) {
+            case "he": case "she": case "him": case "her":
+                return entity(PERSON);
+            case "it":
+                return entity(THING);
+            case "they": case "them":
+                return entity(PLURAL);
+            default:
+                return null;
+        }
+    }
+
+    // Adds an analysis' entities to the history. Objects go in first so the subject, the more
+    // salient antecedent, ends up most recent.
+    public void observe(ExpertSystem.SentenceAnalysis analysis) {
+        for (String object : analysis.getObjects()) {
+            push(object, false);
+        }
+        for (String subject : analysis.getSubjects()) {
+            push(subject, true);
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(entities, null);
+        next = 0;
+        count = 0;
+        Arrays.fill(latest, -1);
+    }
+
+    private String entity(byte kind) {
+        return latest[kind] >= 0 ? entities[latest[kind]] : null;
+    }
+
+    private void push(String word, boolean subject) {
+        String entity = ExpertSystem.stripTerminators(word);
+        if (entity.isEmpty() || ExpertSystem.isPronoun(entity)) return;
+        byte kind = ExpertSystem.isPluralForm(entity) ? PLURAL : isPerson(entity, subject) ? PERSON : THING;
+        int slot = next;
+        byte overwritten = kinds[slot];
+        boolean wasLatest = entities[slot] != null && latest[overwritten] == slot;
+        entities[slot] = entity;
+        kinds[slot] = kind;
+        next = (next + 1) % entities.length;
+        count = Math.min(count + 1, entities.length);
+
+        latest[kind] = slot;
+        if (wasLatest && overwritten != kind) latest[overwritten] = findLatest(overwritten);
+    }
+
+    private static boolean isPerson(String entity, boolean subject) {
+        if (ExpertSystem.getKeyword(entity) == null) return subject;
+        return PERSON_CATEGORY.equals(ExpertSystem.getCategory(entity));
+    }
+
+    // Bounded backward scan for the newest entry of a kind, needed only when the ring overwrites it
+    private int findLatest(byte kind) {
+        for (int i = 1; i < count; i++) {
+            int slot = (next - 1 - i + entities.length) % entities.length;
+            if (kinds[slot] == kind) return slot;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,516 @@
+package main;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Aggregates analyzeSentence results over a whole corpus: subject/object frequency by keyword,
+// sentence type/mood distribution and verb co-occurrence.
+// Each worker thread fills its own Counters (no sharing, no locks) and they are merged at the end.
+// Exact mode counts in int arrays indexed by interned term ID; approximate mode keeps bounded
+// Space-Saving summaries and a Count-Min sketch so memory does not grow with the vocabulary.
+// In both modes the lexicon keywords seen as subjects/objects are kept as term-ID bitsets, so
+// category questions ("every vehicle object in the corpus") are a single bitset intersection.
+//
+// Usage: java main.CorpusStatistics <corpus.txt> [-threads N] [-top K] [-approx] [-plausible]
+// (one sentence per line; -plausible leaves out lines the n-gram model scores as garbage)
+public class CorpusStatistics {
+    static final String[] SENTENCE_TYPES = {"Declarative", "Interrogative", "Exclamatory", "Imperative", "Incomplete"};
+    static final String[] MOODS = {"Neutral", "Questioning", "Emphatic", "Requesting", "Undefined"};
+
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 1 << 16;
+    private static final int BATCH_SIZE = 1000;
+
+    private final boolean approximate;
+    private final int summarySize;
+    private final boolean plausibleOnly;
+    private final TermIds terms = new TermIds();
+    private final Counters total;
+
+    // summarySize: number of items each Space-Saving summary tracks in approximate mode
+    public CorpusStatistics(boolean approximate, int summarySize) {
+        this(approximate, summarySize, false);
+    }
+
+    // plausibleOnly: count sentences the n-gram model finds implausible, but leave them out of every other statistic
+    public CorpusStatistics(boolean approximate, int summarySize, boolean plausibleOnly) {
+        this.approximate = approximate;
+        this.summarySize = summarySize;
+        this.plausibleOnly = plausibleOnly;
+        this.total = new Counters();
+    }
+
+    // Creates counters for one worker thread; hand them back through merge() when done
+    public Counters newCounters() {
+        return new Counters();
+    }
+
+    public synchronized void merge(Counters counters) {
+        total.mergeFrom(counters);
+    }
+
+    public synchronized long getSentenceCount() {
+        return total.sentences;
+    }
+
+    // Sentences scored below the n-gram model's threshold; left out of the statistics in plausibleOnly mode
+    public synchronized long getImplausibleCount() {
+        return total.implausible;
+    }
+
+    public synchronized long getTypeMoodCount(String sentenceType, String mood) {
+        return total.typeMood[typeMoodIndex(sentenceType, mood)];
+    }
+
+    public synchronized List<Map.Entry<String, Long>> topSubjects(int k) {
+        return approximate ? total.subjectSummary.top(k) : topOf(total.subjects, k);
+    }
+
+    public synchronized List<Map.Entry<String, Long>> topObjects(int k) {
+        return approximate ? total.objectSummary.top(k) : topOf(total.objects, k);
+    }
+
+    // Every keyword in a category (see keywords.txt sections) that occurred as a subject
+    public synchronized List<String> getSubjectsInCategory(String category) {
+        return termsOf(filterCategory(total.subjectTerms, category));
+    }
+
+    // Every keyword in a category that occurred as an object
+    public synchronized List<String> getObjectsInCategory(String category) {
+        return termsOf(filterCategory(total.objectTerms, category));
+    }
+
+    private static BitSet filterCategory(BitSet termIds, String category) {
+        BitSet result = ExpertSystem.getCategoryTerms(category);
+        result.and(termIds);
+        return result;
+    }
+
+    private static List<String> termsOf(BitSet termIds) {
+        List<String> terms = new ArrayList<>(termIds.cardinality());
+        for (int id = termIds.nextSetBit(0); id >= 0; id = termIds.nextSetBit(id + 1)) {
+            terms.add(ExpertSystem.getTerm(id));
+        }
+        return terms;
+    }
+
+    // Most frequent verb pairs, reported as "verb+verb"
+    public synchronized List<Map.Entry<String, Long>> topVerbPairs(int k) {
+        return approximate ? total.verbPairSummary.top(k) : total.verbPairs.top(k);
+    }
+
+    // Number of sentences in which both verbs occur (an upper-bound estimate in approximate mode)
+    public synchronized long getVerbPairCount(String a, String b) {
+        if (a.compareTo(b) > 0) {
+            String t = a;
+            a = b;
+            b = t;
+        }
+        if (approximate) {
+            return total.verbPairSketch.estimate(pairHash(a, b));
+        }
+        int idA = terms.find(a);
+        int idB = terms.find(b);
+        return idA < 0 || idB < 0 ? 0 : total.verbPairs.get(pairKey(idA, idB));
+    }
+
+    private List<Map.Entry<String, Long>> topOf(int[] counts, int k) {
+        // Min-heap of the k largest counts seen so far
+        PriorityQueue<int[]> heap = new PriorityQueue<>(Math.max(1, k), (a, b) -> Integer.compare(a[1], b[1]));
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] == 0) continue;
+            if (heap.size() < k) {
+                heap.add(new int[]{id, counts[id]});
+            } else if (k > 0 && counts[id] > heap.peek()[1]) {
+                heap.poll();
+                heap.add(new int[]{id, counts[id]});
+            }
+        }
+        List<Map.Entry<String, Long>> result = new ArrayList<>(heap.size());
+        for (int[] entry : heap) {
+            result.add(new AbstractMap.SimpleImmutableEntry<>(terms.termOf(entry[0]), (long) entry[1]));
+        }
+        result.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        return result;
+    }
+
+    private static int typeMoodIndex(String sentenceType, String mood) {
+        return indexOf(SENTENCE_TYPES, sentenceType) * (MOODS.length + 1) + indexOf(MOODS, mood);
+    }
+
+    // Unknown values share the last slot
+    private static int indexOf(String[] values, String value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].equals(value)) return i;
+        }
+        return values.length;
+    }
+
+    private static long pairKey(int a, int b) {
+        return ((long) a << 32) | (b & 0xFFFFFFFFL);
+    }
+
+    private static long pairHash(String a, String b) {
+        return ((long) a.hashCode() << 32) | (b.hashCode() & 0xFFFFFFFFL);
+    }
+
+    // Subjects and objects are counted by the keyword they resolve to ("kittens" -> "kitten")
+    private static String keywordOf(String word) {
+        String keyword = ExpertSystem.getKeyword(word);
+        return keyword != null ? keyword : word;
+    }
+
+    // Per-thread counters; not thread safe by design
+    public class Counters {
+        private long sentences;
+        private long implausible;
+        private final long[] typeMood = new long[(SENTENCE_TYPES.length + 1) * (MOODS.length + 1)];
+        private final BitSet subjectTerms = new BitSet();  // Lexicon term IDs seen as subjects
+        private final BitSet objectTerms = new BitSet();   // Lexicon term IDs seen as objects
+
+        // Exact mode
+        private int[] subjects;
+        private int[] objects;
+        private LongCounts verbPairs;
+
+        // Approximate mode
+        private SpaceSaving subjectSummary;
+        private SpaceSaving objectSummary;
+        private SpaceSaving verbPairSummary;
+        private CountMinSketch verbPairSketch;
+
+        private Counters() {
+            if (approximate) {
+                subjectSummary = new SpaceSaving(summarySize);
+                objectSummary = new SpaceSaving(summarySize);
+                verbPairSummary = new SpaceSaving(summarySize);
+                verbPairSketch = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+            } else {
+                subjects = new int[256];
+                objects = new int[256];
+                verbPairs = new LongCounts();
+            }
+        }
+
+        public void add(ExpertSystem.SentenceAnalysis analysis) {
+            if (!analysis.isPlausible()) {
+                implausible++;
+                if (plausibleOnly) return;
+            }
+            sentences++;
+            typeMood[typeMoodIndex(analysis.getSentenceType(), analysis.getMood())]++;
+
+            for (String subject : analysis.getSubjects()) {
+                markTerm(subjectTerms, subject);
+                if (approximate) {
+                    subjectSummary.offer(keywordOf(subject));
+                } else {
+                    subjects = increment(subjects, terms.idOf(keywordOf(subject)));
+                }
+            }
+            for (String object : analysis.getObjects()) {
+                markTerm(objectTerms, object);
+                if (approximate) {
+                    objectSummary.offer(keywordOf(object));
+                } else {
+                    objects = increment(objects, terms.idOf(keywordOf(object)));
+                }
+            }
+
+            // Every unordered pair of distinct verbs in the sentence
+            List<String> verbs = analysis.getVerbs();
+            for (int i = 0; i < verbs.size(); i++) {
+                for (int j = i + 1; j < verbs.size(); j++) {
+                    String a = verbs.get(i);
+                    String b = verbs.get(j);
+                    int order = a.compareTo(b);
+                    if (order == 0) continue;
+                    if (order > 0) {
+                        String t = a;
+                        a = b;
+                        b = t;
+                    }
+                    if (approximate) {
+                        verbPairSummary.offer(a + "+" + b);
+                        verbPairSketch.add(pairHash(a, b), 1);
+                    } else {
+                        verbPairs.add(pairKey(terms.idOf(a), terms.idOf(b)), 1);
+                    }
+                }
+            }
+        }
+
+        private void markTerm(BitSet terms, String word) {
+            int id = ExpertSystem.getTermId(word);
+            if (id >= 0) {
+                terms.set(id);
+            }
+        }
+
+        private int[] increment(int[] counts, int id) {
+            if (id >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(id + 1, counts.length * 2));
+            }
+            counts[id]++;
+            return counts;
+        }
+
+        private void mergeFrom(Counters other) {
+            sentences += other.sentences;
+            implausible += other.implausible;
+            for (int i = 0; i < typeMood.length; i++) {
+                typeMood[i] += other.typeMood[i];
+            }
+            subjectTerms.or(other.subjectTerms);
+            objectTerms.or(other.objectTerms);
+            if (approximate) {
+                subjectSummary.merge(other.subjectSummary);
+                objectSummary.merge(other.objectSummary);
+                verbPairSummary.merge(other.verbPairSummary);
+                verbPairSketch.merge(other.verbPairSketch);
+            } else {
+                subjects = addAll(subjects, other.subjects);
+                objects = addAll(objects, other.objects);
+                verbPairs.addAll(other.verbPairs);
+            }
+        }
+
+        private int[] addAll(int[] counts, int[] other) {
+            if (other.length > counts.length) {
+                counts = Arrays.copyOf(counts, other.length);
+            }
+            for (int i = 0; i < other.length; i++) {
+                counts[i] += other[i];
+            }
+            return counts;
+        }
+    }
+
+    // Open-addressing long -> int counter map, used for verb pair keys in exact mode
+    private class LongCounts {
+        private static final long EMPTY = -1L;
+        private long[] keys = newKeys(1024);
+        private int[] values = new int[1024];
+        private int size;
+
+        void add(long key, int count) {
+            if (size * 2 >= keys.length) {
+                resize();
+            }
+            int i = slot(keys, key);
+            if (keys[i] == EMPTY) {
+                keys[i] = key;
+                size++;
+            }
+            values[i] += count;
+        }
+
+        long get(long key) {
+            int i = slot(keys, key);
+            return keys[i] == EMPTY ? 0 : values[i];
+        }
+
+        void addAll(LongCounts other) {
+            for (int i = 0; i < other.keys.length; i++) {
+                if (other.keys[i] != EMPTY) {
+                    add(other.keys[i], other.values[i]);
+                }
+            }
+        }
+
+        List<Map.Entry<String, Long>> top(int k) {
+            List<Map.Entry<String, Long>> entries = new ArrayList<>(size);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY) {
+                    String pair = terms.termOf((int) (keys[i] >>> 32)) + "+" + terms.termOf((int) keys[i]);
+                    entries.add(new AbstractMap.SimpleImmutableEntry<>(pair, (long) values[i]));
+                }
+            }
+            entries.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+            return entries.subList(0, Math.min(k, entries.size()));
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = newKeys(oldKeys.length * 2);
+            values = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int j = slot(keys, oldKeys[i]);
+                    keys[j] = oldKeys[i];
+                    values[j] = oldValues[i];
+                }
+            }
+        }
+
+        private int slot(long[] table, long key) {
+            int mask = table.length - 1;
+            int i = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+            while (table[i] != EMPTY && table[i] != key) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        private long[] newKeys(int capacity) {
+            long[] table = new long[capacity];
+            Arrays.fill(table, EMPTY);
+            return table;
+        }
+    }
+
+    // Analyzes every line of a corpus on `threads` workers and merges their counters
+    public static CorpusStatistics analyzeCorpus(BufferedReader corpus, int threads, boolean approximate, int summarySize)
+            throws IOException, InterruptedException {
+        return analyzeCorpus(corpus, threads, approximate, summarySize, false);
+    }
+
+    // As above, leaving implausible lines out of the statistics when plausibleOnly is set
+    public static CorpusStatistics analyzeCorpus(BufferedReader corpus, int threads, boolean approximate, int summarySize,
+            boolean plausibleOnly) throws IOException, InterruptedException {
+        CorpusStatistics statistics = new CorpusStatistics(approximate, summarySize, plausibleOnly);
+        BlockingQueue<List<String>> batches = new ArrayBlockingQueue<>(threads * 4);
+        List<String> endOfInput = new ArrayList<>();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        List<Future<?>> results = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            results.add(workers.submit(() -> {
+                Counters counters = statistics.newCounters();
+                while (true) {
+                    List<String> batch = batches.take();
+                    if (batch == endOfInput) break;
+                    for (String line : batch) {
+                        if (!line.trim().isEmpty()) {
+                            counters.add(ExpertSystem.analyzeSentence(line));
+                        }
+                    }
+                }
+                statistics.merge(counters);
+                return null;
+            }));
+        }
+
+        boolean queued = false;
+        try {
+            List<String> batch = new ArrayList<>(BATCH_SIZE);
+            String line;
+            while ((line = corpus.readLine()) != null) {
+                batch.add(line);
+                if (batch.size() == BATCH_SIZE) {
+                    enqueue(batches, batch, results);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                enqueue(batches, batch, results);
+            }
+            for (int t = 0; t < threads; t++) {
+                enqueue(batches, endOfInput, results);
+            }
+            queued = true;
+        } finally {
+            if (queued) {
+                workers.shutdown();
+            } else {
+                // A worker failed, reading failed or we were interrupted: stop the others, nothing will feed them
+                workers.shutdownNow();
+            }
+        }
+
+        for (Future<?> result : results) {
+            checkWorker(result);
+        }
+        return statistics;
+    }
+
+    // Queues a batch; if the queue stays full, checks that the workers draining it are still running
+    private static void enqueue(BlockingQueue<List<String>> batches, List<String> batch, List<Future<?>> results)
+            throws InterruptedException {
+        while (!batches.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+            for (Future<?> result : results) {
+                if (result.isDone()) {
+                    checkWorker(result);
+                }
+            }
+        }
+    }
+
+    // Waits for a worker and rethrows its failure
+    private static void checkWorker(Future<?> result) throws InterruptedException {
+        try {
+            result.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Corpus worker failed", e.getCause());
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: java main.CorpusStatistics <corpus.txt> [-threads N] [-top K] [-approx] [-plausible]");
+            System.exit(1);
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        int top = 20;
+        boolean approximate = false, plausibleOnly = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "-threads": threads = Integer.parseInt(args[++i]); break;
+                case "-top": top = Integer.parseInt(args[++i]); break;
+                case "-approx": approximate = true; break;
+                case "-plausible": plausibleOnly = true; break;
+                default: System.err.println("Unknown option: " + args[i]);
+            }
+        }
+
+        long start = System.nanoTime();
+        CorpusStatistics statistics;
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            statistics = analyzeCorpus(reader, threads, approximate, Math.max(top * 10, 100), plausibleOnly);
+        } catch (IOException | InterruptedException e) {
+            System.err.println("Error reading corpus: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Sentences: " + statistics.getSentenceCount() + " (" + elapsedMs + " ms, "
+            + threads + " threads" + (approximate ? ", approximate" : "") + ")");
+        if (statistics.getImplausibleCount() > 0) {
+            System.out.println("Implausible: " + statistics.getImplausibleCount() + (plausibleOnly ? " (left out)" : ""));
+        }
+        System.out.println("\nSentence type / mood:");
+        for (String type : SENTENCE_TYPES) {
+            for (String mood : MOODS) {
+                long count = statistics.getTypeMoodCount(type, mood);
+                if (count > 0) {
+                    System.out.println("  " + type + " / " + mood + ": " + count);
+                }
+            }
+        }
+        printTop("Top subjects", statistics.topSubjects(top));
+        printTop("Top objects", statistics.topObjects(top));
+        printTop("Top verb co-occurrences", statistics.topVerbPairs(top));
+
+        System.out.println("\nObjects by category:");
+        for (String category : ExpertSystem.getCategories()) {
+            List<String> objects = statistics.getObjectsInCategory(category);
+            if (!objects.isEmpty()) {
+                System.out.println("  " + category + ": " + String.join(", ", objects));
+            }
+        }
+    }
+
+    private static void printTop(String title, List<Map.Entry<String, Long>> entries) {
+        System.out.println("\n" + title + ":");
+        for (Map.Entry<String, Long> entry : entries) {
+            System.out.println("  " + entry.getKey() + ": " + entry.getValue());
+        }
+    }
+}
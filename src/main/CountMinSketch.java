@@ -0,0 +1,54 @@
+package main;
+
+// Count-Min sketch: fixed-size frequency estimates that never under-count.
+// Memory is depth * width longs regardless of how many distinct items are added.
+public class CountMinSketch {
+    private static final long[] SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+        0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27D4EB2F165667C5L, 0x94D049BB133111EBL
+    };
+
+    private final int depth;
+    private final int mask;
+    private final long[][] table;
+
+    // width is rounded up to a power of two; depth is capped at the number of hash seeds
+    public CountMinSketch(int depth, int width) {
+        this.depth = Math.min(depth, SEEDS.length);
+        int size = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.mask = size - 1;
+        this.table = new long[this.depth][size];
+    }
+
+    public void add(long key, long count) {
+        for (int row = 0; row < depth; row++) {
+            table[row][index(key, row)] += count;
+        }
+    }
+
+    public long estimate(long key) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, table[row][index(key, row)]);
+        }
+        return min;
+    }
+
+    // Sketches with the same dimensions merge by adding cells
+    public void merge(CountMinSketch other) {
+        if (other.depth != depth || other.mask != mask) {
+            throw new IllegalArgumentException("Sketch dimensions differ");
+        }
+        for (int row = 0; row < depth; row++) {
+            for (int i = 0; i <= mask; i++) {
+                table[row][i] += other.table[row][i];
+            }
+        }
+    }
+
+    private int index(long key, int row) {
+        long h = (key ^ (key >>> 33)) * SEEDS[row];
+        h ^= h >>> 29;
+        return (int) h & mask;
+    }
+}
@@ -0,0 +1,448 @@
+package main;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Read-only term -> value dictionary on disk, for vocabularies too big to hold in memory.
+// Lookups go through three tiers:
+//   1. a Bloom filter (memory-mapped from the file) rejects almost every absent term
+//   2. a small LRU cache answers frequently repeated terms
+//   3. a binary search of the sparse block index (also mapped) picks the one block that can hold
+//      the term; that block is read with a single positional read, inflated and scanned
+// Blocks hold ~4 KB of sorted, front-coded entries and are Deflate-compressed. Heap use is the cache
+// plus one block buffer per thread, whatever the dictionary size. Safe for concurrent lookups.
+//
+// Build: java main.DiskLexicon -build <dictionary.txt> <out.dlx>   (word=value lines, any order)
+// Query: java main.DiskLexicon <file.dlx> <word>...
+public class DiskLexicon implements Closeable {
+    private static final int MAGIC = 0x444C5831;  // "DLX1"
+    private static final int HEADER_BYTES = 64;
+    private static final int INDEX_ENTRY_BYTES = 24;  // offset, compressed length, raw length, first key offset, key length
+    private static final int BLOCK_BYTES = 4096;      // Uncompressed block size target
+    private static final int BLOOM_BITS_PER_KEY = 10;
+    private static final int RUN_ENTRIES = 500_000;   // Entries sorted in memory per run while building
+    private static final String MISSING = new String("");  // Cache marker for Bloom false positives
+
+    private final FileChannel channel;
+    private final long entryCount;
+    private final int blockCount;
+    private final BloomFilter bloom;
+    private final ByteBuffer index;
+    private final ByteBuffer firstKeys;
+    private final Map<String, String> cache;
+    private final ThreadLocal<Reader> readers = ThreadLocal.withInitial(Reader::new);
+
+    // cacheSize: number of recent lookups kept on the heap
+    public DiskLexicon(Path file, int cacheSize) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(channel, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a lexicon file: " + file);
+            }
+            entryCount = header.getLong();
+            blockCount = header.getInt();
+            int bloomHashes = header.getInt();
+            long bloomOffset = header.getLong();
+            long bloomBytes = header.getLong();
+            long indexOffset = header.getLong();
+            long keysOffset = header.getLong();
+            long keysBytes = header.getLong();
+            bloom = new BloomFilter(map(bloomOffset, bloomBytes), bloomHashes);
+            index = map(indexOffset, (long) blockCount * INDEX_ENTRY_BYTES);
+            firstKeys = map(keysOffset, keysBytes);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        cache = Collections.synchronizedMap(new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public boolean containsKey(String term) {
+        return get(term) != null;
+    }
+
+    // Returns the term's value, or null if the dictionary doesn't have it
+    public String get(String term) {
+        if (!bloom.mightContain(term)) return null;
+        String cached = cache.get(term);
+        if (cached != null) {
+            return cached == MISSING ? null : cached;
+        }
+        String value = readers.get().find(term.getBytes(StandardCharsets.UTF_8));
+        cache.put(term, value == null ? MISSING : value);
+        return value;
+    }
+
+    public long size() {
+        return entryCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private MappedByteBuffer map(long offset, long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Lexicon section too large to map: " + length + " bytes");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+    }
+
+    // Index of the last block whose first key is <= key, or -1 if key sorts before every block
+    private int findBlock(byte[] key) {
+        int low = 0;
+        int high = blockCount - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = middle * INDEX_ENTRY_BYTES;
+            int keyOffset = index.getInt(entry + 16);
+            int keyLength = index.getInt(entry + 20);
+            if (compare(firstKeys, keyOffset, keyLength, key) <= 0) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    // Unsigned byte order, the order the builder sorts in
+    private static int compare(ByteBuffer buffer, int offset, int length, byte[] key) {
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int difference = (buffer.get(offset + i) & 0xFF) - (key[i] & 0xFF);
+            if (difference != 0) return difference;
+        }
+        return length - key.length;
+    }
+
+    // Per-thread block buffers and inflater
+    private final class Reader {
+        private final Inflater inflater = new Inflater();
+        private ByteBuffer compressed = ByteBuffer.allocate(BLOCK_BYTES);
+        private byte[] raw = new byte[BLOCK_BYTES * 2];
+        private byte[] previous = new byte[256];
+
+        String find(byte[] key) {
+            int block = findBlock(key);
+            if (block < 0) return null;
+            int entry = block * INDEX_ENTRY_BYTES;
+            long offset = index.getLong(entry);
+            int compressedLength = index.getInt(entry + 8);
+            int rawLength = index.getInt(entry + 12);
+            try {
+                if (compressed.capacity() < compressedLength) compressed = ByteBuffer.allocate(compressedLength);
+                if (raw.length < rawLength) raw = new byte[rawLength];
+                compressed.clear().limit(compressedLength);
+                readFully(channel, compressed, offset);
+                inflater.reset();
+                inflater.setInput(compressed.array(), 0, compressedLength);
+                if (inflater.inflate(raw, 0, rawLength) != rawLength) {
+                    throw new UncheckedIOException(new IOException("Corrupt lexicon block " + block));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (DataFormatException e) {
+                throw new UncheckedIOException(new IOException("Corrupt lexicon block " + block, e));
+            }
+            return scan(key, rawLength);
+        }
+
+        // Walks the front-coded entries: shared prefix length, suffix, value
+        private String scan(byte[] key, int length) {
+            int position = 0;
+            int previousLength = 0;
+            while (position < length) {
+                int shared = raw[position++] & 0xFF;
+                int suffix = readVarInt(position);
+                position = varIntEnd;
+                int keyLength = shared + suffix;
+                if (previous.length < keyLength) previous = Arrays.copyOf(previous, keyLength * 2);
+                System.arraycopy(raw, position, previous, shared, suffix);
+                position += suffix;
+                int valueLength = readVarInt(position);
+                position = varIntEnd;
+                previousLength = keyLength;
+
+                int order = compareKeys(previous, previousLength, key);
+                if (order == 0) return new String(raw, position, valueLength, StandardCharsets.UTF_8);
+                if (order > 0) return null;  // Sorted: the term would have come before this entry
+                position += valueLength;
+            }
+            return null;
+        }
+
+        private int varIntEnd;
+
+        private int readVarInt(int position) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = raw[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            varIntEnd = position;
+            return value;
+        }
+    }
+
+    private static int compareKeys(byte[] a, int aLength, byte[] b) {
+        int common = Math.min(aLength, b.length);
+        for (int i = 0; i < common; i++) {
+            int difference = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (difference != 0) return difference;
+        }
+        return aLength - b.length;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) throw new EOFException("Lexicon file is truncated");
+            position += read;
+        }
+    }
+
+    // Builds a lexicon file from word=value lines (keys are lowercased; the first value of a duplicate wins).
+    // Sorts with bounded memory: runs of RUN_ENTRIES are sorted and spilled to temp files, then merged.
+    public static void build(Path dictionary, Path output) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        long lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(dictionary, StandardCharsets.UTF_8)) {
+            List<byte[][]> run = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                int separator = line.indexOf('=');
+                if (separator <= 0) continue;
+                run.add(new byte[][] {
+                    line.substring(0, separator).trim().toLowerCase().getBytes(StandardCharsets.UTF_8),
+                    line.substring(separator + 1).trim().getBytes(StandardCharsets.UTF_8)
+                });
+                lines++;
+                if (run.size() == RUN_ENTRIES) {
+                    runs.add(spill(run));
+                    run.clear();
+                }
+            }
+            if (!run.isEmpty() || runs.isEmpty()) {
+                runs.add(spill(run));
+            }
+        }
+        try {
+            writeLexicon(runs, lines, output);
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    private static Path spill(List<byte[][]> run) throws IOException {
+        run.sort((a, b) -> compareKeys(a[0], a[0].length, b[0]));  // Stable, so duplicates keep file order
+        Path file = Files.createTempFile("lexicon-run", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            for (byte[][] entry : run) {
+                out.writeInt(entry[0].length);
+                out.write(entry[0]);
+                out.writeInt(entry[1].length);
+                out.write(entry[1]);
+            }
+        }
+        return file;
+    }
+
+    // One sorted run being merged
+    private static final class RunCursor {
+        final DataInputStream in;
+        final int order;  // Earlier runs win ties
+        byte[] key;
+        byte[] value;
+
+        RunCursor(Path file, int order) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+            this.order = order;
+        }
+
+        boolean next() throws IOException {
+            int keyLength;
+            try {
+                keyLength = in.readInt();
+            } catch (EOFException e) {
+                in.close();
+                return false;
+            }
+            key = new byte[keyLength];
+            in.readFully(key);
+            value = new byte[in.readInt()];
+            in.readFully(value);
+            return true;
+        }
+    }
+
+    private static void writeLexicon(List<Path> runs, long expectedKeys, Path output) throws IOException {
+        PriorityQueue<RunCursor> merge = new PriorityQueue<>((a, b) -> {
+            int order = compareKeys(a.key, a.key.length, b.key);
+            return order != 0 ? order : Integer.compare(a.order, b.order);
+        });
+        for (int i = 0; i < runs.size(); i++) {
+            RunCursor cursor = new RunCursor(runs.get(i), i);
+            if (cursor.next()) merge.add(cursor);
+        }
+
+        BloomFilter bloom = BloomFilter.create(expectedKeys, BLOOM_BITS_PER_KEY);
+        ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+        DataOutputStream indexOut = new DataOutputStream(indexBytes);
+        ByteArrayOutputStream keyBytes = new ByteArrayOutputStream();
+        ByteArrayOutputStream block = new ByteArrayOutputStream(BLOCK_BYTES * 2);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        byte[] compressed = new byte[BLOCK_BYTES * 2];
+        long entries = 0;
+        int blocks = 0;
+        int firstKeyOffset = 0;
+        int firstKeyLength = 0;
+
+        try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = HEADER_BYTES;
+            byte[] previous = null;
+            while (!merge.isEmpty()) {
+                RunCursor cursor = merge.poll();
+                byte[] key = cursor.key;
+                byte[] value = cursor.value;
+                if (cursor.next()) merge.add(cursor);
+                if (previous != null && Arrays.equals(previous, key)) continue;  // Duplicate term
+                if (key.length > 255) {
+                    throw new IOException("Term longer than 255 bytes: " + new String(key, StandardCharsets.UTF_8));
+                }
+
+                int shared = 0;
+                if (block.size() == 0) {
+                    // First entry of a block: stored whole and recorded in the sparse index
+                    firstKeyOffset = keyBytes.size();
+                    firstKeyLength = key.length;
+                    keyBytes.write(key);
+                } else {
+                    int limit = Math.min(previous.length, key.length);
+                    while (shared < limit && previous[shared] == key[shared]) shared++;
+                }
+                block.write(shared);
+                writeVarInt(block, key.length - shared);
+                block.write(key, shared, key.length - shared);
+                writeVarInt(block, value.length);
+                block.write(value);
+                bloom.add(new String(key, StandardCharsets.UTF_8));
+                previous = key;
+                entries++;
+
+                if (block.size() >= BLOCK_BYTES) {
+                    position = flushBlock(out, position, block, deflater, compressed, indexOut);
+                    indexOut.writeInt(firstKeyOffset);
+                    indexOut.writeInt(firstKeyLength);
+                    blocks++;
+                }
+            }
+            if (block.size() > 0) {
+                position = flushBlock(out, position, block, deflater, compressed, indexOut);
+                indexOut.writeInt(firstKeyOffset);
+                indexOut.writeInt(firstKeyLength);
+                blocks++;
+            }
+
+            ByteBuffer index = ByteBuffer.wrap(indexBytes.toByteArray());
+            long bloomOffset = position;
+            ByteBuffer bloomBits = bloom.bits();
+            position += write(out, bloomBits, position);
+            long indexOffset = position;
+            position += write(out, index, position);
+            long keysOffset = position;
+            write(out, ByteBuffer.wrap(keyBytes.toByteArray()), position);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putLong(entries).putInt(blocks).putInt(bloom.hashes())
+                .putLong(bloomOffset).putLong(bloomBits.capacity())
+                .putLong(indexOffset).putLong(keysOffset).putLong(keyBytes.size());
+            header.clear();
+            write(out, header, 0);
+        } finally {
+            deflater.end();
+        }
+        System.out.println("Wrote " + entries + " terms in " + blocks + " blocks to " + output);
+    }
+
+    private static long flushBlock(FileChannel out, long position, ByteArrayOutputStream block, Deflater deflater,
+                                   byte[] compressed, DataOutputStream indexOut) throws IOException {
+        byte[] raw = block.toByteArray();
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream packed = new ByteArrayOutputStream(raw.length);
+        while (!deflater.finished()) {
+            int length = deflater.deflate(compressed);
+            packed.write(compressed, 0, length);
+        }
+        byte[] bytes = packed.toByteArray();
+        write(out, ByteBuffer.wrap(bytes), position);
+        indexOut.writeLong(position);
+        indexOut.writeInt(bytes.length);
+        indexOut.writeInt(raw.length);
+        block.reset();
+        return position + bytes.length;
+    }
+
+    private static int write(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            position += out.write(buffer, position);
+        }
+        return length;
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 3 && args[0].equals("-build")) {
+            build(Paths.get(args[1]), Paths.get(args[2]));
+            return;
+        }
+        if (args.length < 2) {
+            System.err.println("Usage: java main.DiskLexicon -build <dictionary.txt> <out.dlx>");
+            System.err.println("       java main.DiskLexicon <file.dlx> <word>...");
+            System.exit(1);
+        }
+        try (DiskLexicon lexicon = new DiskLexicon(Paths.get(args[0]), 1024)) {
+            System.out.println(lexicon.size() + " terms");
+            for (int i = 1; i < args.length; i++) {
+                String word = args[i].toLowerCase();
+                System.out.println(word + " -> " + lexicon.get(word));
+            }
+        }
+    }
+}
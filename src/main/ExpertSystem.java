@@ -1,173 +1,161 @@
 package main;
 
-import java.io.*;
 import java.util.*;
+import java.util.stream.Collectors;
 
 public class ExpertSystem {
-	 // Maps to store various language components and their relationships
-    private static final Map<String, String> OBJECT_KEYWORDS = new HashMap<>();  // Stores object names and their classifications
-    static final Map<String, Set<String>> WORD_ALIASES = new HashMap<>();       // Stores words and their synonyms/aliases
-    private static final Set<String> VERBS = new HashSet<>();                   // Stores basic action words
-    private static final Set<String> ARTICLES = new HashSet<>();                // Stores words like "a", "an", "the"
-    private static final Set<String> PREPOSITIONS = new HashSet<>();           // Stores words that show relationships
-    private static final Set<String> AUXILIARY_VERBS = new HashSet<>();        // Stores helping verbs
-    private static final Set<String> SENTENCE_TERMINATORS = new HashSet<>();   // Stores sentence ending punctuation
-    private static final Map<String, String> PRONOUN_REPLACEMENTS = new HashMap<>();  // Maps pronouns to their object forms
-    private static final Map<String, String> INFORMAL_TO_FORMAL = new HashMap<>();    // Maps casual words to formal ones
-
-    // Static initializer block - runs when the class is first loaded
-    static {
-        initializeAliases();
-        initializeInformalToFormal();
-        
-        // Initialize auxiliary verbs (helping verbs)
-        AUXILIARY_VERBS.addAll(Arrays.asList(
-            "am", "is", "are", "was", "were", "be", "being", "been",
-            "have", "has", "had", "do", "does", "did",
-            "will", "would", "shall", "should", "may", "might",
-            "must", "can", "could"
-        ));
-        // Initialize sentence ending punctuation
-        SENTENCE_TERMINATORS.addAll(Arrays.asList(".", "!", "?"));
-        
-        // Initialize basic action verbs
-        VERBS.addAll(Arrays.asList(
-            "see", "go", "come", "give", "make", "read", "write", 
-            "listen", "think", "want", "need", "know", "feel", "try", "run", "jump", "talk", "bark",
-            "eat", "sleep", "play", "walk", "sit", "stand", "like", "love", "hear"
-        ));
-        
-		 // Initialize articles (a, an, the)
-        ARTICLES.addAll(Arrays.asList("a", "an", "the"));
-        
-		// Initialize prepositions (relationship words)
-        PREPOSITIONS.addAll(Arrays.asList(
-            "in", "on", "at", "to", "for", "with", "by", "from", "of", 
-            "under", "over", "between", "among", "through", "behind", "beyond",
-            "near", "before", "after", "during", "within", "without", "about",
-            "across", "along", "around", "down", "into", "onto", "out", "up", "upon"
-        ));
-
-        PRONOUN_REPLACEMENTS.put("i", "me");
-        PRONOUN_REPLACEMENTS.put("you", "you");
-        PRONOUN_REPLACEMENTS.put("he", "him");
-        PRONOUN_REPLACEMENTS.put("she", "her");
-        PRONOUN_REPLACEMENTS.put("it", "it");
-        PRONOUN_REPLACEMENTS.put("we", "us");
-        PRONOUN_REPLACEMENTS.put("they", "them");
-
-        loadKeywords("keywords.txt");
+    // Word classes, morphology and keywords of the default language (res/lexicons/en.lex);
+    // the overloads taking a Lexicon analyze other languages (see LexiconRegistry)
+    private static final Lexicon DEFAULT = LexiconRegistry.getDefault();
+    static final Map<String, Set<String>> WORD_ALIASES = DEFAULT.aliases;       // Stores words and their synonyms/aliases
+    private static final int PARALLEL_THRESHOLD = 8;  // Below this many sentences a paragraph is analyzed serially
+
+    // Typo correction budget: -Dspelling.maxDistance=0 turns correction off
+    private static final int SPELLING_MAX_DISTANCE = Integer.getInteger("spelling.maxDistance", 2);
+    private static final int SPELLING_MAX_CANDIDATES = Integer.getInteger("spelling.maxCandidates", 64);
+    private static final int SPELLING_MIN_LENGTH = 4;  // Shorter words are too easily "corrected" into keywords
+
+    // Generates the plural form of a word in the default language, handling special cases like "child" -> "children"
+    static String generatePlural(String singular) {
+        return DEFAULT.plural(singular);
     }
-    
 
-    private static void initializeAliases() {
-        addAlias("cat", Arrays.asList("kitty", "kitten", "feline"));
-        addAlias("dog", Arrays.asList("pup", "puppy", "hound", "canine"));
-        addAlias("bird", Arrays.asList("birdie", "fowl", "avian"));
+    // Returns the keyword a word resolves to (e.g. "kittens" -> "kitten"), or null if it is not an object keyword
+    public static String getKeyword(String word) {
+        return DEFAULT.getKeyword(word);
     }
 
+    // Identifies the default lexicon in use: its file checksum, plus the on-disk dictionary if one is open
+    public static String getLexiconVersion() {
+        return DEFAULT.getVersion();
+    }
 
-    private static void initializeInformalToFormal() {
-        INFORMAL_TO_FORMAL.put("kitty", "cat");
-        INFORMAL_TO_FORMAL.put("doggy", "dog");
-        INFORMAL_TO_FORMAL.put("birdie", "bird");
+    // Keyword categories from the keywords.txt sections, in file order
+    public static List<String> getCategories() {
+        return DEFAULT.getCategories().names();
     }
-    
-    // Adds aliases for a base word (e.g., "cat" -> ["kitty", "kitten", "feline"])
-    private static void addAlias(String baseWord, List<String> aliases) {
-        WORD_ALIASES.putIfAbsent(baseWord, new HashSet<>(aliases));
-        for (String alias : aliases) {
-            WORD_ALIASES.computeIfAbsent(alias, k -> new HashSet<>()).add(baseWord);
-        }
+
+    // Returns the category of a keyword ("trucks" -> "Vehicles"), or null
+    public static String getCategory(String word) {
+        KeywordCategories categories = DEFAULT.getCategories();
+        int category = categories.categoryOf(DEFAULT.getTermId(word));
+        return category >= 0 ? categories.name(category) : null;
     }
-    
-    // Loads object keywords from a specified file and processes them (singular/plural)
-    private static void loadKeywords(String filePath) {
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty() || line.startsWith("#")) continue; // Skip empty line
-
-                String[] parts = line.split("=");
-                if (parts.length == 2) {
-                    String singular = parts[0].trim();
-                    String value = parts[1].trim();
-
-                    // First, add the base word and its value
-                    OBJECT_KEYWORDS.put(singular, value);
-                    
-                    // Then add its plural form
-                    String plural = generatePlural(singular);
-                    if (plural != null) {
-                        OBJECT_KEYWORDS.put(plural, value);
-                    }
 
-                    // Process aliases for this keyword
-                    processAliasesForKeyword(singular, value);
-                }
+    // Lexicon term ID of a keyword, or -1; IDs index the category bitsets
+    public static int getTermId(String word) {
+        return DEFAULT.getTermId(word);
+    }
+
+    public static String getTerm(int termId) {
+        return DEFAULT.getTerm(termId);
+    }
+
+    // Returns a copy of a category's term-ID bitset (empty for unknown categories)
+    public static BitSet getCategoryTerms(String category) {
+        KeywordCategories categories = DEFAULT.getCategories();
+        int index = categories.find(category);
+        return index >= 0 ? categories.terms(index) : new BitSet();
+    }
+
+    // Term IDs of the keywords among the given words
+    static BitSet termIds(Lexicon lexicon, List<String> words) {
+        BitSet ids = new BitSet();
+        for (String word : words) {
+            int id = lexicon.getTermId(word);
+            if (id >= 0) {
+                ids.set(id);
             }
-        } catch (IOException e) {
-            System.err.println("Error loading keywords: " + e.getMessage());
         }
+        return ids;
     }
-    // Processes aliases for a given keyword and adds them to the object keywords
-    private static void processAliasesForKeyword(String baseWord, String value) {
-        // Get aliases for the base word
-        Set<String> aliases = WORD_ALIASES.get(baseWord);
-        if (aliases != null) {
-            for (String alias : aliases) {
-                // Add the alias to OBJECT_KEYWORDS with the same value
-                OBJECT_KEYWORDS.put(alias, value);
-                
-                // Also add plural form of the alias
-                String aliasPlural = generatePlural(alias);
-                if (aliasPlural != null) {
-                    OBJECT_KEYWORDS.put(aliasPlural, value);
-                }
+
+    // The words that belong to a category, in their original order
+    static List<String> inCategory(Lexicon lexicon, List<String> words, String category) {
+        KeywordCategories categories = lexicon.getCategories();
+        int index = categories.find(category);
+        List<String> result = new ArrayList<>();
+        if (index < 0) return result;
+        for (String word : words) {
+            if (categories.contains(index, lexicon.getTermId(word))) {
+                result.add(word);
             }
         }
-        
-        // Check if this word is an alias for something else
-        for (Map.Entry<String, Set<String>> entry : WORD_ALIASES.entrySet()) {
-            if (entry.getValue().contains(baseWord)) {
-                // If this word is an alias, it should have the same value as its base word
-                OBJECT_KEYWORDS.put(baseWord, value);
-                String plural = generatePlural(baseWord);
-                if (plural != null) {
-                    OBJECT_KEYWORDS.put(plural, value);
-                }
-            }
+        return result;
+    }
+
+    // Deletion index over the default keywords. A holder class, so an ahead-of-time initialized
+    // ExpertSystem builds it into the image (see native-image.properties)
+    private static class Spelling {
+        static final SpellingCorrector CORRECTOR = DEFAULT.spelling(SPELLING_MAX_DISTANCE, SPELLING_MAX_CANDIDATES);
+    }
+
+    // Returns the keyword a misspelled word most likely means ("elephnat" -> "elephant"), or null.
+    // Words in the lexicon's real-word list are meant as written and left alone ("summer" is two edits
+    // from "hammer")
+    public static String correctSpelling(String word) {
+        return correctSpelling(DEFAULT, word);
+    }
+
+    static String correctSpelling(Lexicon lexicon, String word) {
+        if (SPELLING_MAX_DISTANCE <= 0 || word.length() < SPELLING_MIN_LENGTH || lexicon.isKeyword(word)
+                || lexicon.isRealWord(word)) {
+            return null;
         }
+        SpellingCorrector corrector = lexicon == DEFAULT ? Spelling.CORRECTOR
+            : lexicon.spelling(SPELLING_MAX_DISTANCE, SPELLING_MAX_CANDIDATES);
+        return corrector.correct(word);
     }
-    
-    // Generates the plural form of a word, handling special cases like "child" -> "children"
-    private static String generatePlural(String singular) {
-        if (singular == null || singular.isEmpty()) return null;
-
-        Map<String, String> specialPlurals = Map.of(
-            "mouse", "mice", "child", "children", "person", "people",
-            "foot", "feet", "tooth", "teeth", "goose", "geese"
-        );
-        if (specialPlurals.containsKey(singular)) return specialPlurals.get(singular);
-
-        if (Arrays.asList("fish", "sheep", "deer", "species").contains(singular)) return singular;
-
-        if (singular.endsWith("s") || singular.endsWith("x") || singular.endsWith("z") || 
-            singular.endsWith("sh") || singular.endsWith("ch")) {
-            return singular + "es";
-        } else if (singular.endsWith("y") && !isVowel(singular.charAt(singular.length() - 2))) {
-            return singular.substring(0, singular.length() - 1) + "ies";
-        } else if (singular.endsWith("f")) {
-            return singular.substring(0, singular.length() - 1) + "ves";
-        } else if (singular.endsWith("fe")) {
-            return singular.substring(0, singular.length() - 2) + "ves";
-        } else {
-            return singular + "s";
+
+    // Tags the sentence's words, or returns null when the language has no model
+    private static String[] tagTokens(Lexicon lexicon, List<String> tokens) {
+        PosTagger tagger = lexicon.tagger();
+        if (tagger == null) return null;
+        List<String> words = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            words.add(stripTerminators(lexicon, token));
+        }
+        int[] ids = new int[words.size()];
+        tagger.tag(words, ids);
+        String[] tags = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            tags[i] = tagger.tagName(ids[i]);
         }
+        return tags;
+    }
+
+    // Function words and modifiers play no subject/object role: adverbs, determiners, numbers, particles,
+    // conjunctions, and adjectives in front of a noun ("big" in "the big dog")
+    private static boolean isModifier(String[] tags, int index) {
+        switch (tags[index]) {
+            case "ADV": case "DET": case "ADP": case "CONJ": case "PRT": case "NUM":
+                return true;
+            case "ADJ":
+                return index + 1 < tags.length && (tags[index + 1].equals("NOUN") || tags[index + 1].equals("ADJ"));
+            default:
+                return false;
+        }
+    }
+
+    // Checks if a word is in any of the word lists
+    private static boolean isKnownWord(Lexicon lexicon, String word) {
+        return lexicon.auxiliaries.contains(word) || lexicon.verbs.contains(word) || lexicon.articles.contains(word)
+            || lexicon.prepositions.contains(word) || lexicon.terminators.contains(word)
+            || lexicon.pronouns.containsKey(word) || lexicon.isKeyword(word)
+            || lexicon.aliases.containsKey(word);
+    }
+
+    // Checks if a word is a personal pronoun or one of its object forms ("he", "him", "they", ...)
+    static boolean isPronoun(String word) {
+        return DEFAULT.pronouns.containsKey(word) || DEFAULT.pronouns.containsValue(word);
     }
-    // Checks if a character is a vowel (for pluralization purposes)
-    private static boolean isVowel(char c) {
-        return "aeiou".indexOf(Character.toLowerCase(c)) != -1;
+
+    // Checks if a word is the plural form of a keyword ("cats", "mice"); unknown words ending in "s" count as plural
+    static boolean isPluralForm(String word) {
+        if (DEFAULT.isLoadedKeyword(word)) {
+            return DEFAULT.isPluralKeyword(word);
+        }
+        return word.endsWith("s") && !word.endsWith("ss");
     }
     
     // Sentence analysis class that stores various components of the sentence (subject, verb, object)
@@ -182,6 +170,8 @@ public class ExpertSystem {
 
         private Map<String, String> resolvedAliases = new HashMap<>();
         private Map<String, String> formalReplacements = new HashMap<>();
+        private Map<String, String> resolvedPronouns = new HashMap<>();
+        private Map<String, String> spellingCorrections = new HashMap<>();
 
         public List<String> getSubjects() { return subjects; }
         public List<String> getVerbs() { return verbs; }
@@ -192,9 +182,48 @@ public class ExpertSystem {
         public String getSentenceType() { return sentenceType; }
         public Map<String, String> getResolvedAliases() { return resolvedAliases; }
         public Map<String, String> getFormalReplacements() { return formalReplacements; }
+        public Map<String, String> getResolvedPronouns() { return resolvedPronouns; }
+        public Map<String, String> getSpellingCorrections() { return spellingCorrections; }
+
+        // Category queries, backed by the keyword category bitsets
+        public BitSet getSubjectTermIds() { return termIds(lexicon, subjects); }
+        public BitSet getObjectTermIds() { return termIds(lexicon, objects); }
+        public List<String> getSubjectsInCategory(String category) { return inCategory(lexicon, subjects, category); }
+        public List<String> getObjectsInCategory(String category) { return inCategory(lexicon, objects, category); }
         private String mood;
+        private String text;
+        private long analysisNanos;
+        private int tokenCount;  // For the flight recorder event
+        private Lexicon lexicon = DEFAULT;
+        private List<String> tokens;
+        private boolean scored;
+        private float plausibility = Float.NaN;
+        private boolean plausible = true;
+
+        // Mean log10 probability per token under the language's n-gram model (higher is more
+        // plausible); NaN when the language has no model or the sentence has no words.
+        // Scored on first request, so analyses nobody filters don't pay for it
+        public float getPlausibility() { score(); return plausibility; }
+        // False when the n-gram model scores the sentence below its threshold, i.e. it is probably garbage;
+        // always true when the language has no model
+        public boolean isPlausible() { score(); return plausible; }
+
+        private void score() {
+            if (scored) return;
+            NgramModel ngrams = lexicon.ngrams();
+            if (ngrams != null && tokens != null) {
+                plausibility = ngrams.score(tokens);
+                plausible = Float.isNaN(plausibility) || ngrams.isPlausible(plausibility);
+            }
+            scored = true;
+        }
+
+        // The lexicon the sentence was analyzed with; term IDs and categories refer to it
+        public Lexicon getLexicon() { return lexicon; }
 
         public String getMood() { return mood; }
+        public String getText() { return text; }
+        public long getAnalysisNanos() { return analysisNanos; }
 
      // Returns a string representation of the sentence analysis
         @Override
@@ -223,6 +252,20 @@ public class ExpertSystem {
                 sb.append("\n");
             }
             
+            if (!spellingCorrections.isEmpty()) {
+                sb.append("Spelling Corrections:\n");
+                for (Map.Entry<String, String> entry : spellingCorrections.entrySet()) {
+                    sb.append("  ").append(entry.getKey()).append(" -> ").append(entry.getValue()).append("\n");
+                }
+            }
+
+            if (!resolvedPronouns.isEmpty()) {
+                sb.append("Resolved Pronouns:\n");
+                for (Map.Entry<String, String> entry : resolvedPronouns.entrySet()) {
+                    sb.append("  ").append(entry.getKey()).append(" -> ").append(entry.getValue()).append("\n");
+                }
+            }
+
             if (!resolvedAliases.isEmpty()) {
                 sb.append("Resolved Aliases:\n");
                 for (Map.Entry<String, String> entry : resolvedAliases.entrySet()) {
@@ -238,8 +281,9 @@ public class ExpertSystem {
             for (int i = 0; i < words.size(); i++) {
                 String word = words.get(i);
                 sb.append(word);
-                if (OBJECT_KEYWORDS.containsKey(word)) {
-                    sb.append(" (").append(OBJECT_KEYWORDS.get(word)).append(")");
+                String keyword = lexicon.getKeyword(word);
+                if (keyword != null) {
+                    sb.append(" (").append(keyword).append(")");
                 }
                 if (i < words.size() - 1) {
                     sb.append(", ");
@@ -249,31 +293,195 @@ public class ExpertSystem {
     }
 
 
+    // Splits text into sentences after each terminator (".", "!", "?"), keeping the terminator
+    // with its sentence so analyzeSentence can still tell questions and exclamations apart
+    public static List<String> splitSentences(String text) {
+        return splitSentences(DEFAULT, text);
+    }
+
+    static List<String> splitSentences(Lexicon lexicon, String text) {
+        Set<String> terminators = lexicon.terminators;
+        List<String> sentences = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (terminators.contains(String.valueOf(text.charAt(i)))) {
+                // Runs like "?!" or "..." stay with the same sentence
+                while (i + 1 < text.length() && terminators.contains(String.valueOf(text.charAt(i + 1)))) {
+                    i++;
+                }
+                addSentence(terminators, sentences, text.substring(start, i + 1));
+                start = i + 1;
+            }
+        }
+        addSentence(terminators, sentences, text.substring(start));
+        return sentences;
+    }
+
+    private static void addSentence(Set<String> terminators, List<String> sentences, String sentence) {
+        String trimmed = sentence.trim();
+        // Skip empty pieces and stray punctuation
+        for (int i = 0; i < trimmed.length(); i++) {
+            if (!terminators.contains(String.valueOf(trimmed.charAt(i)))) {
+                sentences.add(trimmed);
+                return;
+            }
+        }
+    }
+
+    // Analyzes each sentence of a paragraph or document, in input order.
+    // Larger inputs are analyzed concurrently on the common fork/join (work-stealing) pool;
+    // each result records its own sentence text and analysis time.
+    public static List<SentenceAnalysis> analyzeParagraph(String text) {
+        return analyzeParagraph(text, null);
+    }
+
+    // As above, resolving pronouns against earlier sentences (and, with a long-lived resolver, earlier inputs).
+    // Sentences are analyzed in parallel first; then one ordered pass re-analyzes only the sentences
+    // that contain a resolvable pronoun and feeds each result to the resolver.
+    public static List<SentenceAnalysis> analyzeParagraph(String text, CoreferenceResolver resolver) {
+        return analyzeParagraph(text, resolver, DEFAULT);
+    }
+
+    // As above, in the language of the given lexicon
+    public static List<SentenceAnalysis> analyzeParagraph(String text, CoreferenceResolver resolver, Lexicon lexicon) {
+        List<String> sentences = splitSentences(lexicon, text);
+        List<SentenceAnalysis> analyses;
+        if (sentences.size() < PARALLEL_THRESHOLD) {
+            analyses = new ArrayList<>(sentences.size());
+            for (String sentence : sentences) {
+                analyses.add(analyzeTimed(sentence, resolver, lexicon));
+                if (resolver != null) {
+                    resolver.observe(analyses.get(analyses.size() - 1));
+                }
+            }
+            return analyses;
+        }
+        analyses = sentences.parallelStream()
+            .map(sentence -> analyzeTimed(sentence, null, lexicon))
+            .collect(Collectors.toList());
+        if (resolver != null) {
+            for (int i = 0; i < analyses.size(); i++) {
+                if (hasPronoun(lexicon, sentences.get(i), resolver)) {
+                    analyses.set(i, analyzeTimed(sentences.get(i), resolver, lexicon));
+                }
+                resolver.observe(analyses.get(i));
+            }
+        }
+        return analyses;
+    }
+
+    private static boolean hasPronoun(Lexicon lexicon, String sentence, CoreferenceResolver resolver) {
+        for (String token : sentence.toLowerCase().trim().split("\\s+")) {
+            if (resolver.resolve(stripTerminators(lexicon, token)) != null) return true;
+        }
+        return false;
+    }
+
+    private static SentenceAnalysis analyzeTimed(String sentence, CoreferenceResolver resolver, Lexicon lexicon) {
+        long start = System.nanoTime();
+        SentenceAnalysis analysis = analyzeSentence(sentence, resolver, lexicon);
+        analysis.analysisNanos = System.nanoTime() - start;
+        return analysis;
+    }
+
+    static String stripTerminators(String token) {
+        return stripTerminators(DEFAULT, token);
+    }
+
+    static String stripTerminators(Lexicon lexicon, String token) {
+        int end = token.length();
+        while (end > 0 && lexicon.terminators.contains(String.valueOf(token.charAt(end - 1)))) {
+            end--;
+        }
+        return token.substring(0, end);
+    }
+
     public static SentenceAnalysis analyzeSentence(String input) {
+        return analyzeSentence(input, null);
+    }
+
+    // Analyzes a sentence; third-person pronouns that the resolver can place are replaced by
+    // the entity they refer to before classification (recorded in getResolvedPronouns())
+    public static SentenceAnalysis analyzeSentence(String input, CoreferenceResolver resolver) {
+        return analyzeSentence(input, resolver, DEFAULT);
+    }
+
+    // As above, in the language of the given lexicon (see LexiconRegistry.get(Locale))
+    public static SentenceAnalysis analyzeSentence(String input, CoreferenceResolver resolver, Lexicon lexicon) {
+        if (!FlightEvents.recording()) {
+            return analyze(input, resolver, lexicon);
+        }
+        FlightEvents.SentenceAnalysisEvent event = new FlightEvents.SentenceAnalysisEvent();
+        event.begin();
+        SentenceAnalysis analysis = analyze(input, resolver, lexicon);
+        if (event.shouldCommit()) {
+            event.tokens = analysis.tokenCount;
+            event.sentenceType = analysis.sentenceType;
+            event.complete = analysis.isSentence;
+            event.corrections = analysis.spellingCorrections.size();
+            event.lexiconVersion = lexicon.getVersion();
+            event.commit();
+        }
+        return analysis;
+    }
+
+    private static SentenceAnalysis analyze(String input, CoreferenceResolver resolver, Lexicon lexicon) {
         // Create a new SentenceAnalysis object to store results
         SentenceAnalysis analysis = new SentenceAnalysis();
+        analysis.text = input;
+        analysis.lexicon = lexicon;
         
         // Tokenize the input sentence by splitting on whitespace and converting to lowercase
         List<String> tokens = Arrays.asList(input.toLowerCase().trim().split("\\s+"));
+        analysis.tokenCount = tokens.size();
         
         // Flags to track if a subject and verb have been found in the sentence
         boolean foundSubject = false, foundVerb = false;
         
+        // Statistical tags for words the fixed lists don't cover ("quickly", "eats")
+        String[] tags = tagTokens(lexicon, tokens);
+        
         // Loop through the tokens to process each word
-        for (String token : tokens) {
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            String tag = tags == null ? null : tags[i];
+            // Resolve pronouns ("it" -> "cat") so the referent is classified like any other word
+            if (resolver != null) {
+                String pronoun = stripTerminators(lexicon, token);
+                String referent = resolver.resolve(pronoun);
+                if (referent != null) {
+                    analysis.resolvedPronouns.put(pronoun, referent);
+                    token = referent;
+                }
+            }
+            // Classify words without the sentence's closing punctuation ("flowers." -> "flowers");
+            // a bare terminator ("?") is kept so it is skipped below
+            String stripped = stripTerminators(lexicon, token);
+            if (!stripped.isEmpty()) token = stripped;
+            // Correct unknown words that would become a subject or object ("elephnat" -> "elephant");
+            // words in other positions are ignored by the analysis anyway, and so are words tagged as non-nouns
+            if ((!foundSubject || foundVerb) && !isKnownWord(lexicon, token) && (tag == null || tag.equals("NOUN"))) {
+                String corrected = correctSpelling(lexicon, token);
+                if (corrected != null) {
+                    if (!corrected.equals(token)) {
+                        analysis.spellingCorrections.put(token, corrected);
+                    }
+                    token = corrected;
+                }
+            }
             // Check if the token is an auxiliary verb or main verb
-            if (AUXILIARY_VERBS.contains(token) || VERBS.contains(token)) {
+            if (lexicon.auxiliaries.contains(token) || lexicon.verbs.contains(token)) {
                 analysis.getVerbs().add(token);  // Add the verb to the list of verbs
                 foundVerb = true;  // Mark that a verb has been found
             } 
             // Skip articles, prepositions, and sentence terminators (punctuation)
-            else if (ARTICLES.contains(token) || PREPOSITIONS.contains(token) || 
-                     SENTENCE_TERMINATORS.contains(token)) {
+            else if (lexicon.articles.contains(token) || lexicon.prepositions.contains(token) || 
+                     lexicon.terminators.contains(token)) {
                 continue;  // Skip these words as they are not directly useful for subject/verb/object analysis
             }
             // Check if the token is a pronoun replacement (e.g., "he" -> "John")
-            else if (PRONOUN_REPLACEMENTS.containsKey(token)) {
-                String replacement = PRONOUN_REPLACEMENTS.get(token);
+            else if (lexicon.pronouns.containsKey(token)) {
+                String replacement = lexicon.pronouns.get(token);
                 // If the subject has not been found yet, add the replacement as the subject
                 if (!foundSubject) {
                     analysis.getSubjects().add(replacement);  // Add to subjects list
@@ -281,14 +489,20 @@ public class ExpertSystem {
                     foundSubject = true;  // Mark that a subject has been found
                 }
             } 
+            // A keyword used as the verb right after the subject ("saw" in "I saw a ship", "fly" in "bees fly")
+            else if (foundSubject && !foundVerb && "VERB".equals(tag)) {
+                analysis.getVerbs().add(token);
+                foundVerb = true;
+            }
             // Check if the token is an object keyword or word alias
-            else if (OBJECT_KEYWORDS.containsKey(token) || WORD_ALIASES.containsKey(token)) {
+            else if (lexicon.isKeyword(token) || lexicon.aliases.containsKey(token)) {
                 // If a verb has been found, it's likely the object; add it to the objects list
                 if (foundVerb) {
                     analysis.getObjects().add(token);  // Add token to objects list
                     // Resolve object alias and store it as the main object
-                    analysis.mainObject = OBJECT_KEYWORDS.getOrDefault(token, token);
-                    analysis.resolvedAliases.put(token, OBJECT_KEYWORDS.getOrDefault(token, token));
+                    String keyword = lexicon.getKeyword(token);
+                    analysis.mainObject = keyword != null ? keyword : token;
+                    analysis.resolvedAliases.put(token, analysis.mainObject);
                 } 
                 // If no verb has been found, treat this as the subject
                 else {
@@ -297,6 +511,15 @@ public class ExpertSystem {
                     foundSubject = true;  // Mark that a subject has been found
                 }
             } 
+            // Words the tagger recognizes as verbs ("eats", "wrote") count like the listed verbs
+            else if (tag != null && (tag.equals("VERB") || tag.equals("AUX"))) {
+                analysis.getVerbs().add(token);
+                foundVerb = true;
+            }
+            // Skip modifiers and function words the tagger recognizes
+            else if (tags != null && isModifier(tags, i)) {
+                continue;
+            }
             // For other tokens, assume they are the subject if no subject has been found
             else {
                 // If no subject has been found, this token is treated as the subject
@@ -316,19 +539,17 @@ public class ExpertSystem {
         // Determine if the sentence is complete based on the presence of a subject, verb, and object
         analysis.isSentence = foundSubject && foundVerb && !analysis.getObjects().isEmpty();
 
+        // Kept for the plausibility score, which is computed only if someone asks for it
+        analysis.tokens = tokens;
+
         // Enhanced sentence type identification based on sentence structure and punctuation
         if (analysis.isSentence) {
             // Get the first and last tokens of the sentence to analyze sentence type
             String firstToken = tokens.get(0).toLowerCase();
             String lastToken = tokens.get(tokens.size() - 1);
             
-            // Define a set of question words (e.g., "what", "how", "why")
-            Set<String> questionWords = new HashSet<>(Arrays.asList(
-                "what", "where", "when", "who", "whom", "whose", "which", "why", "how"
-            ));
-
-            // Check if the sentence ends with a question mark or starts with a question word
-            if (lastToken.endsWith("?") || questionWords.contains(firstToken)) {
+            // Check if the sentence ends with a question mark or starts with a question word ("what", "how", "why")
+            if (lastToken.endsWith("?") || lexicon.questionWords.contains(firstToken)) {
                 analysis.sentenceType = "Interrogative";  // This is a question
                 analysis.mood = "Questioning";  // The mood is questioning
             } 
@@ -337,10 +558,9 @@ public class ExpertSystem {
                 analysis.sentenceType = "Exclamatory";  // This is an exclamation
                 analysis.mood = "Emphatic";  // The mood is emphatic
             } 
-            // Check if the sentence starts with a polite request (imperative mood)
-            else if (firstToken.equals("please") || 
-                     Arrays.asList("do", "please", "let", "would").contains(firstToken) || 
-                     analysis.getVerbs().get(0).equals("would")) {
+            // Check if the sentence starts with a polite request (imperative mood): "please", "let", "would", ...
+            else if (lexicon.requestOpeners.contains(firstToken) || 
+                     lexicon.requestVerbs.contains(analysis.getVerbs().get(0))) {
                 analysis.sentenceType = "Imperative";  // This is a command/request
                 analysis.mood = "Requesting";  // The mood is requesting
             } 
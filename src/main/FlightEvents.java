@@ -0,0 +1,184 @@
+package main;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// Java Flight Recorder events for the analysis, asset and UI pipeline stages.
+// Every event records its thread and duration, so in one recording analysis latency lines up with
+// GC pauses and with what the event dispatch thread was doing at the time:
+//   java -XX:StartFlightRecording=filename=analysis.jfr,settings=profile -cp bin:res main.Main
+//   jfr print --categories "Language Analysis" analysis.jfr
+// Call sites only create events once recording() is true: loading the first event class sets up
+// JFR's instrumentation support, ~100 classes and ~0.2 s that AnalyzerCli and the menu shouldn't pay
+// when nobody records. After that they follow begin() / work / shouldCommit() and fill in fields only
+// when the event will be written.
+final class FlightEvents {
+    private FlightEvents() {
+    }
+
+    // True once the flight recorder has started, at launch (-XX:StartFlightRecording) or later (jcmd JFR.start)
+    static boolean recording() {
+        return FlightRecorder.isInitialized();
+    }
+
+    @Name("main.SentenceAnalysis")
+    @Label("Sentence Analysis")
+    @Category({"Language Analysis", "Analyzer"})
+    @Description("One call to ExpertSystem.analyzeSentence")
+    @Threshold("100 us")  // A typical sentence takes ~10 us; lower it in the recording settings to see all of them
+    @StackTrace(false)
+    static final class SentenceAnalysisEvent extends Event {
+        @Label("Tokens")
+        int tokens;
+
+        @Label("Sentence Type")
+        String sentenceType;
+
+        @Label("Complete")
+        @Description("Whether subject, verb and object were all found")
+        boolean complete;
+
+        @Label("Spelling Corrections")
+        int corrections;
+
+        @Label("Lexicon Version")
+        @Description("Language tag and checksum of its lexicon files, plus the on-disk dictionary if one is open")
+        String lexiconVersion;
+    }
+
+    @Name("main.ImageResolve")
+    @Label("Image Resolve")
+    @Category({"Language Analysis", "Images"})
+    @Description("Lookup of the image for a word in ImageMapper")
+    @StackTrace(false)
+    static final class ImageResolveEvent extends Event {
+        @Label("Word")
+        String word;
+
+        @Label("Resolved By")
+        @Description("direct, alias, spelling, or none when no image was found")
+        String resolvedBy;
+    }
+
+    @Name("main.ImageDecode")
+    @Label("Image Decode")
+    @Category({"Language Analysis", "Images"})
+    @Description("Reduced-resolution decode of an image file in ImageDecoder, including the downscale")
+    static final class ImageDecodeEvent extends Event {
+        @Label("Image")
+        String image;
+
+        @Label("Source Width")
+        int sourceWidth;
+
+        @Label("Source Height")
+        int sourceHeight;
+
+        @Label("Subsampling")
+        @Description("Pixel step the reader was asked for")
+        int subsampling;
+
+        @Label("Progressive")
+        @Description("Decoded through the toolkit decoder rather than ImageIO")
+        boolean progressive;
+
+        @Label("Width")
+        int width;
+
+        @Label("Height")
+        int height;
+    }
+
+    @Name("main.ImageScale")
+    @Label("Image Scale")
+    @Category({"Language Analysis", "Images"})
+    @Description("Bilinear downscale of a decoded image to its display size")
+    @StackTrace(false)
+    static final class ImageScaleEvent extends Event {
+        @Label("Source Width")
+        int sourceWidth;
+
+        @Label("Source Height")
+        int sourceHeight;
+
+        @Label("Width")
+        int width;
+
+        @Label("Height")
+        int height;
+
+        @Label("Steps")
+        @Description("Number of halving passes")
+        int steps;
+    }
+
+    @Name("main.IconLookup")
+    @Label("Icon Lookup")
+    @Category({"Language Analysis", "UI"})
+    @Description("Scaled icon requested by the game window, served from its cache or decoded")
+    @StackTrace(false)
+    static final class IconLookupEvent extends Event {
+        @Label("Word")
+        String word;
+
+        @Label("Size")
+        int size;
+
+        @Label("Cached")
+        boolean cached;
+
+        @Label("Found")
+        boolean found;
+    }
+
+    @Name("main.SoundLoad")
+    @Label("Sound Load")
+    @Category({"Language Analysis", "Audio"})
+    @Description("Decode of a sound effect into a Clip, or header check of a streamed music track, in SoundManager")
+    @StackTrace(false)
+    static final class SoundLoadEvent extends Event {
+        @Label("Path")
+        String path;
+
+        @Label("Frames")
+        long frames;
+
+        @Label("Size")
+        @Description("Decoded PCM held in memory; 0 for streamed tracks")
+        @DataAmount
+        long bytes;
+
+        @Label("Loaded")
+        boolean loaded;
+
+        @Label("Streamed")
+        @Description("Played through a SourceDataLine a chunk at a time rather than held in a Clip")
+        boolean streamed;
+    }
+
+    @Name("main.AnalysisDisplay")
+    @Label("Analysis Display")
+    @Category({"Language Analysis", "UI"})
+    @Description("Game.performAnalysis on the event dispatch thread: analysis plus the table and image update")
+    @StackTrace(false)
+    static final class AnalysisDisplayEvent extends Event {
+        @Label("Sentences")
+        int sentences;
+
+        @Label("Complete Sentences")
+        int complete;
+
+        @Label("Image Hits")
+        int imageHits;
+
+        @Label("Image Misses")
+        int imageMisses;
+    }
+}
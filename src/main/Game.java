@@ -5,37 +5,65 @@ import javax.swing.border.LineBorder;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 public class Game extends JFrame {
-    private static final Color PRIMARY_COLOR = new Color(41, 128, 185);
-    private static final Color SECONDARY_COLOR = new Color(52, 152, 219);
-    private static final Color SUCCESS_COLOR = new Color(46, 204, 113);
-    private static final Color WARNING_COLOR = new Color(241, 196, 15);
-    private static final Color ERROR_COLOR = new Color(231, 76, 60);
+    static final Color PRIMARY_COLOR = new Color(41, 128, 185);
+    static final Color SECONDARY_COLOR = new Color(52, 152, 219);
+    static final Color SUCCESS_COLOR = new Color(46, 204, 113);
+    static final Color WARNING_COLOR = new Color(241, 196, 15);
+    static final Color ERROR_COLOR = new Color(231, 76, 60);
     private static final Color BG_COLOR = new Color(236, 240, 241);
     private static final Color DARK_BG_COLOR = new Color(30, 30, 30);
     private static final Color DARK_PRIMARY_COLOR = new Color(25, 118, 210);
     private static final Color DARK_SECONDARY_COLOR = new Color(35, 147, 237);
     private static final Color DARK_ACCENT_COLOR = new Color(255, 159, 64);
+    private static final int COREFERENCE_HISTORY = 16;
+    private static final Font GROUP_TITLE_FONT = new Font("Segoe UI", Font.BOLD, 16);
+
+    // Visualization views
+    private static final String VIEW_IMAGE = "image";
+    private static final String VIEW_EMPTY = "empty";
+    private static final String VIEW_WORD = "word";
+    private static final String VIEW_PAIR = "pair";
+    private static final String VIEW_MULTI = "multi";
     
     private JTextField inputField;
     private JButton submitButton;
     private JLabel messageLabel;
     private JLabel imageLabel;
-    private JLabel analysisLabel;
+    private AnalysisTable analysisTable;
     private JPanel visualizationPanel;
+    private JPanel visualizationCards;
+    private CardLayout visualizationLayout;
+    private String currentView;
+    private ComponentCard wordCard;
+    private ComponentCard subjectCard;
+    private ComponentCard objectCard;
+    private JPanel subjectGroup, objectGroup;
+    private JPanel subjectImages, objectImages;
+    private final List<ComponentCard> subjectPool = new ArrayList<>();
+    private final List<ComponentCard> objectPool = new ArrayList<>();
+    // Pronouns resolve against entities from earlier sentences in this game session
+    private final CoreferenceResolver coreference = new CoreferenceResolver(COREFERENCE_HISTORY);
+    private int imageHits, imageMisses;  // Image lookups for the current analysis, for the analytics log
     private Buttons mainMenu;
     private Timer analysisTimer;
     private int animationStep = 0;
     private boolean darkMode;
     
+    // Sound, scaled images and lexicon shared with the menu and later sessions; released in dispose()
+    private AppContext context;
     private SoundManager sound;
     
     public Game(Buttons mainMenu, boolean darkMode) {
         this.mainMenu = mainMenu;
         this.darkMode = darkMode;
-        this.sound = new SoundManager();
+        this.context = AppContext.acquire();
+        this.sound = context.getSound();
         initializeUI();
         setupListeners();
 //        sound.playGameBackgroundMusic();
@@ -147,25 +175,28 @@ public class Game extends JFrame {
 
     private JButton StyledButton(String text) {
         JButton button = new JButton(text) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2d = (Graphics2D) g;
+            private final SkinCache skin = new SkinCache((g2d, state, dark, w, h) -> {
                 g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
                 
-                if (getModel().isPressed()) {
-                    g2d.setColor(darkMode ? DARK_PRIMARY_COLOR.darker() : PRIMARY_COLOR.darker());
-                } else if (getModel().isRollover()) {
-                    g2d.setColor(darkMode ? DARK_SECONDARY_COLOR : SECONDARY_COLOR);
+                if (state == SkinCache.PRESSED) {
+                    g2d.setColor(dark ? DARK_PRIMARY_COLOR.darker() : PRIMARY_COLOR.darker());
+                } else if (state == SkinCache.HOVER) {
+                    g2d.setColor(dark ? DARK_SECONDARY_COLOR : SECONDARY_COLOR);
                 } else {
-                    g2d.setColor(darkMode ? DARK_PRIMARY_COLOR : PRIMARY_COLOR);
+                    g2d.setColor(dark ? DARK_PRIMARY_COLOR : PRIMARY_COLOR);
                 }
                 
-                g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 10, 10);
-                g2d.setColor(darkMode ? Color.WHITE : Color.WHITE);
+                g2d.fillRoundRect(0, 0, w, h, 10, 10);
+                g2d.setColor(Color.WHITE);
                 FontMetrics fm = g2d.getFontMetrics();
-                int x = (getWidth() - fm.stringWidth(getText())) / 2;
-                int y = ((getHeight() - fm.getHeight()) / 2) + fm.getAscent();
+                int x = (w - fm.stringWidth(getText())) / 2;
+                int y = ((h - fm.getHeight()) / 2) + fm.getAscent();
                 g2d.drawString(getText(), x, y);
+            });
+
+            @Override
+            protected void paintComponent(Graphics g) {
+                skin.paint(g, this, getText(), SkinCache.stateOf(getModel()), darkMode);
             }
         };
         button.setPreferredSize(new Dimension(120, 40));
@@ -197,8 +228,16 @@ public class Game extends JFrame {
         scrollPane.setBorder(null);
         scrollPane.setBackground(darkMode ? DARK_BG_COLOR : Color.WHITE);
 
+        // Retained views switched by CardLayout instead of being rebuilt per analysis
+        visualizationLayout = new CardLayout();
+        visualizationCards = new JPanel(visualizationLayout);
+        visualizationCards.setBackground(darkMode ? DARK_BG_COLOR : Color.WHITE);
+        visualizationCards.add(scrollPane, VIEW_IMAGE);
+        currentView = VIEW_IMAGE;
+        initializeViews();
+
         visualizationPanel.add(messageLabel, BorderLayout.NORTH);
-        visualizationPanel.add(scrollPane, BorderLayout.CENTER);
+        visualizationPanel.add(visualizationCards, BorderLayout.CENTER);
         
         return visualizationPanel;
     }
@@ -207,13 +246,13 @@ public class Game extends JFrame {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBackground(darkMode ? DARK_BG_COLOR : BG_COLOR);
         
-        analysisLabel = new JLabel();
-        analysisLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-        analysisLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        Color cellColor = darkMode ? DARK_SECONDARY_COLOR : SECONDARY_COLOR;
+        analysisTable = new AnalysisTable(darkMode ? DARK_PRIMARY_COLOR : PRIMARY_COLOR,
+            cellColor, cellColor, SUCCESS_COLOR, WARNING_COLOR, SECONDARY_COLOR);
         
         // Add a border to separate analysis from visualization
         panel.setBorder(BorderFactory.createMatteBorder(2, 0, 0, 0, darkMode ? DARK_PRIMARY_COLOR : PRIMARY_COLOR));
-        panel.add(analysisLabel, BorderLayout.CENTER);
+        panel.add(analysisTable, BorderLayout.CENTER);
         
         return panel;
     }
@@ -278,14 +317,80 @@ public class Game extends JFrame {
 
     private void clearAnalysis() {
         imageLabel.setIcon(null);
-        analysisLabel.setText("");
+        analysisTable.clear();
     }
     
 
  // Update the performAnalysis method
     private void performAnalysis(String input) {
-        ExpertSystem.SentenceAnalysis analysis = ExpertSystem.analyzeSentence(input);
+        if (context == null) return;  // A timer tick that was already queued when the window was disposed
+        // Spans the whole EDT update, so slow frames can be told apart from slow analyses in a recording
+        FlightEvents.AnalysisDisplayEvent event = FlightEvents.recording() ? new FlightEvents.AnalysisDisplayEvent() : null;
+        if (event != null) event.begin();
+        // Pasted paragraphs are split into sentences and analyzed in parallel, in order
+        List<ExpertSystem.SentenceAnalysis> analyses = ExpertSystem.analyzeParagraph(input, coreference, context.getLexicon());
+        if (analyses.isEmpty()) {
+            updateMessage("Not a sentence", ERROR_COLOR);
+            clearVisualization();
+            if (event != null) event.commit();
+            return;
+        }
 
+        imageHits = 0;
+        imageMisses = 0;
+        if (analyses.size() == 1) {
+            showAnalysis(analyses.get(0));
+        } else {
+            showParagraph(analyses);
+        }
+
+        // Queued for the background writer; never blocks the EDT.
+        // Image lookups belong to the whole display, so they are attributed to the first sentence.
+        AnalysisLog log = AnalysisLog.getInstance();
+        for (int i = 0; i < analyses.size(); i++) {
+            ExpertSystem.SentenceAnalysis analysis = analyses.get(i);
+            log.record(analysis.getText(), analysis, analysis.getAnalysisNanos(),
+                i == 0 ? imageHits : 0, i == 0 ? imageMisses : 0);
+        }
+        if (event != null && event.shouldCommit()) {
+            event.sentences = analyses.size();
+            for (ExpertSystem.SentenceAnalysis analysis : analyses) {
+                if (analysis.isSentence()) event.complete++;
+            }
+            event.imageHits = imageHits;
+            event.imageMisses = imageMisses;
+            event.commit();
+        }
+    }
+
+    // Shows every complete sentence of a paragraph: one table row each, and all their subjects/objects
+    private void showParagraph(List<ExpertSystem.SentenceAnalysis> analyses) {
+        List<ExpertSystem.SentenceAnalysis> complete = new ArrayList<>();
+        Set<String> subjects = new LinkedHashSet<>();
+        Set<String> objects = new LinkedHashSet<>();
+        for (ExpertSystem.SentenceAnalysis analysis : analyses) {
+            if (analysis.isSentence()) {
+                complete.add(analysis);
+                subjects.addAll(analysis.getSubjects());
+                objects.addAll(analysis.getObjects());
+            }
+        }
+        if (complete.isEmpty()) {
+            showAnalysis(analyses.get(0));
+            return;
+        }
+
+        updateMessage("Analysis complete! " + complete.size() + " of " + analyses.size() + " sentences identified.", SUCCESS_COLOR);
+        updateAnalysisDisplay(complete);
+        if (subjects.size() > 1 || objects.size() > 1) {
+            displayMultipleComponents(new ArrayList<>(subjects), new ArrayList<>(objects));
+        } else {
+            displaySubjectAndObject(subjects.isEmpty() ? null : subjects.iterator().next(),
+                objects.isEmpty() ? null : objects.iterator().next());
+        }
+    }
+
+    private void showAnalysis(ExpertSystem.SentenceAnalysis analysis) {
         if (!analysis.isSentence() && analysis.getSubjects().isEmpty()) {
             updateMessage("Not a sentence", ERROR_COLOR);
             clearVisualization();
@@ -297,7 +402,7 @@ public class Game extends JFrame {
             displaySingleImage(analysis.getSubjects().get(0));
         } else {
             updateMessage("Analysis complete! " + analysis.getSentenceType() + " sentence identified.", SUCCESS_COLOR);
-            updateAnalysisDisplay(analysis);
+            updateAnalysisDisplay(Collections.singletonList(analysis));
 
             List<String> subjects = analysis.getSubjects();
             List<String> objects = analysis.getObjects();
@@ -313,214 +418,152 @@ public class Game extends JFrame {
             }
         }
     }
-    private JPanel ComponentPanel(String word, String type) {
-        JPanel panel = new JPanel(new BorderLayout(5, 5));
-        panel.setBackground(darkMode ? DARK_BG_COLOR : Color.WHITE);
-        
-        // Create label
-        JLabel typeLabel = new JLabel(type + ": " + capitalize(word), SwingConstants.CENTER);
-        typeLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
-        typeLabel.setForeground(darkMode ? DARK_PRIMARY_COLOR : PRIMARY_COLOR);
-        panel.add(typeLabel, BorderLayout.NORTH);
-        
-        // Create image
-        ImageIcon icon = ImageMapper.getImageIcon(word);  // Utility class that maps words to image icons
-        if (icon != null) {
-            Image scaledImage = icon.getImage().getScaledInstance(200, 200, Image.SCALE_SMOOTH); // Scaling image for consistency
-            JLabel imageLabel = new JLabel(new ImageIcon(scaledImage));
-            panel.add(imageLabel, BorderLayout.CENTER);
-        } else {
-            JLabel placeholderLabel = new JLabel("No image available", SwingConstants.CENTER);
-            placeholderLabel.setFont(new Font("Segoe UI", Font.ITALIC, 12));
-            placeholderLabel.setForeground(darkMode ? DARK_ACCENT_COLOR : SECONDARY_COLOR);
-            panel.add(placeholderLabel, BorderLayout.CENTER);
+    // Returns the icon for a word scaled to the given size, reusing copies scaled by any session
+    private ImageIcon scaledIcon(String word, int size) {
+        FlightEvents.IconLookupEvent event = FlightEvents.recording() ? new FlightEvents.IconLookupEvent() : null;
+        if (event != null) event.begin();
+        boolean cached = event != null && context.isIconCached(word, size);
+        ImageIcon icon = context.getScaledIcon(word, size);
+        if (icon != null) imageHits++; else imageMisses++;
+        if (event != null && event.shouldCommit()) {
+            event.word = word;
+            event.size = size;
+            event.cached = cached;
+            event.found = icon != null;
+            event.commit();
         }
-        
-        return panel;
+        return icon;
     }
-    private void displayMultipleComponents(List<String> subjects, List<String> objects) {
-        clearVisualization();
-        
-        // Change GridLayout to 1 row and 2 columns for side-by-side display
-        JPanel mainPanel = new JPanel(new GridLayout(1, 2, 10, 10));  // 1 row, 2 columns
-        mainPanel.setBackground(darkMode ? DARK_BG_COLOR : Color.WHITE);
 
-        // Add subjects panel
-        if (!subjects.isEmpty()) {
-            mainPanel.add(MultipleComponentPanel(subjects, "Subjects"));
-        }
+    private ComponentCard PairCard() {
+        return new ComponentCard(200, 10, false, null, darkMode ? DARK_BG_COLOR : Color.WHITE,
+            darkMode ? DARK_PRIMARY_COLOR : PRIMARY_COLOR, darkMode ? DARK_ACCENT_COLOR : SECONDARY_COLOR);
+    }
 
-        // Add objects panel
-        if (!objects.isEmpty()) {
-            mainPanel.add(MultipleComponentPanel(objects, "Objects"));
-        }
+    private ComponentCard GroupCard() {
+        return new ComponentCard(150, 5, true, null, darkMode ? DARK_BG_COLOR : Color.WHITE,
+            darkMode ? Color.LIGHT_GRAY : Color.DARK_GRAY, darkMode ? DARK_ACCENT_COLOR : SECONDARY_COLOR);
+    }
 
-        visualizationPanel.add(mainPanel, BorderLayout.CENTER);
-        visualizationPanel.revalidate();
-        visualizationPanel.repaint();
+    // Builds the retained views once; later analyses only update the cards inside them
+    private void initializeViews() {
+        // Single word view
+        wordCard = new ComponentCard(200, 0, false, "No image available", darkMode ? DARK_BG_COLOR : Color.WHITE,
+            darkMode ? DARK_PRIMARY_COLOR : PRIMARY_COLOR, darkMode ? DARK_ACCENT_COLOR : SECONDARY_COLOR);
+        visualizationCards.add(wordCard, VIEW_WORD);
+
+        // Subject and object side by side
+        JPanel pairPanel = new JPanel(new GridBagLayout());
+        pairPanel.setBackground(darkMode ? DARK_BG_COLOR : Color.WHITE);
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.gridy = 0;
+        gbc.insets = new Insets(10, 10, 10, 10);
+        subjectCard = PairCard();
+        gbc.gridx = 0;
+        pairPanel.add(subjectCard, gbc);
+        objectCard = PairCard();
+        gbc.gridx = 1;
+        pairPanel.add(objectCard, gbc);
+        visualizationCards.add(pairPanel, VIEW_PAIR);
+
+        // Multiple subjects/objects; GridBagLayout skips hidden groups
+        JPanel multiPanel = new JPanel(new GridBagLayout());
+        multiPanel.setBackground(darkMode ? DARK_BG_COLOR : Color.WHITE);
+        GridBagConstraints groupGbc = new GridBagConstraints();
+        groupGbc.fill = GridBagConstraints.BOTH;
+        groupGbc.weightx = 1;
+        groupGbc.weighty = 1;
+        groupGbc.insets = new Insets(5, 5, 5, 5);
+        subjectGroup = MultipleComponentPanel("Subjects");
+        subjectImages = (JPanel) subjectGroup.getComponent(1);
+        groupGbc.gridx = 0;
+        multiPanel.add(subjectGroup, groupGbc);
+        objectGroup = MultipleComponentPanel("Objects");
+        objectImages = (JPanel) objectGroup.getComponent(1);
+        groupGbc.gridx = 1;
+        multiPanel.add(objectGroup, groupGbc);
+        visualizationCards.add(multiPanel, VIEW_MULTI);
+
+        JPanel emptyPanel = new JPanel();
+        emptyPanel.setBackground(darkMode ? DARK_BG_COLOR : Color.WHITE);
+        visualizationCards.add(emptyPanel, VIEW_EMPTY);
     }
 
+    private void displayMultipleComponents(List<String> subjects, List<String> objects) {
+        fillGroup(subjectGroup, subjectImages, subjectPool, subjects);
+        fillGroup(objectGroup, objectImages, objectPool, objects);
+        showView(VIEW_MULTI);
+    }
 
-    private JPanel MultipleComponentPanel(List<String> words, String type) {
+    private JPanel MultipleComponentPanel(String type) {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBackground(darkMode ? DARK_BG_COLOR : Color.WHITE);
         
         // Add type label
         JLabel typeLabel = new JLabel(type, SwingConstants.CENTER);
-        typeLabel.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        typeLabel.setFont(GROUP_TITLE_FONT);
         typeLabel.setForeground(darkMode ? DARK_PRIMARY_COLOR : PRIMARY_COLOR);
         panel.add(typeLabel, BorderLayout.NORTH);
         
         // Create flow panel for images
         JPanel imagesPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
         imagesPanel.setBackground(darkMode ? DARK_BG_COLOR : Color.WHITE);
-        
-        for (String word : words) {
-            JPanel wordPanel = new JPanel(new BorderLayout(5, 5));
-            wordPanel.setBackground(darkMode ? DARK_BG_COLOR : Color.WHITE);
-            
-            ImageIcon icon = ImageMapper.getImageIcon(word);
-            if (icon != null) {
-                Image scaledImage = icon.getImage().getScaledInstance(150, 150, Image.SCALE_SMOOTH);
-                JLabel imageLabel = new JLabel(new ImageIcon(scaledImage));
-                imageLabel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
-                wordPanel.add(imageLabel, BorderLayout.CENTER);
-            }
-            
-            JLabel wordLabel = new JLabel(capitalize(word), SwingConstants.CENTER);
-            wordLabel.setForeground(darkMode ? Color.LIGHT_GRAY : Color.DARK_GRAY);
-            wordPanel.add(wordLabel, BorderLayout.SOUTH);
-            
-            imagesPanel.add(wordPanel);
-        }
-        
         panel.add(imagesPanel, BorderLayout.CENTER);
         return panel;
     }
+
+    // Shows one pooled card per word, growing the pool only when a larger analysis needs it
+    private void fillGroup(JPanel group, JPanel imagesPanel, List<ComponentCard> pool, List<String> words) {
+        group.setVisible(!words.isEmpty());
+        while (pool.size() < words.size()) {
+            ComponentCard card = GroupCard();
+            pool.add(card);
+            imagesPanel.add(card);
+        }
+        for (int i = 0; i < pool.size(); i++) {
+            if (i < words.size()) {
+                String word = words.get(i);
+                pool.get(i).setContent(word, capitalize(word), scaledIcon(word, 150));
+            } else {
+                pool.get(i).hideCard();
+            }
+        }
+    }
+
+    private void showView(String view) {
+        if (!view.equals(currentView)) {
+            visualizationLayout.show(visualizationCards, view);
+            currentView = view;
+        }
+    }
+
     private void clearVisualization() {
-        visualizationPanel.removeAll();
-        visualizationPanel.add(messageLabel, BorderLayout.NORTH);
+        showView(VIEW_EMPTY);
     }
 
     private void displaySingleImage(String word) {
-        clearVisualization();
-        
-        JPanel panel = ComponentPanel(word, "Word");
-        visualizationPanel.add(panel, BorderLayout.CENTER);
-        visualizationPanel.revalidate();
-        visualizationPanel.repaint();
+        wordCard.setContent(word, "Word: " + capitalize(word), scaledIcon(word, 200));
+        showView(VIEW_WORD);
     }
 
 
     private void displaySubjectAndObject(String subject, String object) {
-        clearVisualization();
-
-        // Panel to hold the images side by side
-        JPanel imagePanel = new JPanel(new GridBagLayout());
-        imagePanel.setBackground(darkMode ? DARK_BG_COLOR : Color.WHITE);
-        GridBagConstraints gbc = new GridBagConstraints();
-
-        // Add subject
         if (subject != null) {
-            JPanel subjectPanel = new JPanel(new BorderLayout());
-            subjectPanel.setBackground(darkMode ? DARK_BG_COLOR : Color.WHITE);
-
-            // Add subject label
-            JLabel subjectLabel = new JLabel("Subject: " + capitalize(subject), SwingConstants.CENTER);
-            subjectLabel.setForeground(darkMode ? DARK_PRIMARY_COLOR : PRIMARY_COLOR);
-            subjectLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
-            subjectPanel.add(subjectLabel, BorderLayout.NORTH);
-
-            // Add subject image
-            ImageIcon subjectIcon = ImageMapper.getImageIcon(subject);
-            if (subjectIcon != null) {
-                Image scaledImage = subjectIcon.getImage().getScaledInstance(200, 200, Image.SCALE_SMOOTH);
-                JLabel subjectImageLabel = new JLabel(new ImageIcon(scaledImage));
-                subjectImageLabel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-                subjectPanel.add(subjectImageLabel, BorderLayout.CENTER);
-            }
-
-            gbc.gridx = 0;
-            gbc.gridy = 0;
-            gbc.insets = new Insets(10, 10, 10, 10);
-            imagePanel.add(subjectPanel, gbc);
+            subjectCard.setContent(subject, "Subject: " + capitalize(subject), scaledIcon(subject, 200));
+        } else {
+            subjectCard.hideCard();
         }
-
-        // Add object
         if (object != null) {
-            JPanel objectPanel = new JPanel(new BorderLayout());
-            objectPanel.setBackground(darkMode ? DARK_BG_COLOR : Color.WHITE);
-
-            // Add object label
-            JLabel objectLabel = new JLabel("Object: " + capitalize(object), SwingConstants.CENTER);
-            objectLabel.setForeground(darkMode ? DARK_PRIMARY_COLOR : PRIMARY_COLOR);
-            objectLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
-            objectPanel.add(objectLabel, BorderLayout.NORTH);
-
-            // Add object image
-            ImageIcon objectIcon = ImageMapper.getImageIcon(object);
-            if (objectIcon != null) {
-                Image scaledImage = objectIcon.getImage().getScaledInstance(200, 200, Image.SCALE_SMOOTH);
-                JLabel objectImageLabel = new JLabel(new ImageIcon(scaledImage));
-                objectImageLabel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-                objectPanel.add(objectImageLabel, BorderLayout.CENTER);
-            }
-
-            gbc.gridx = 1;
-            gbc.gridy = 0;
-            imagePanel.add(objectPanel, gbc);
+            objectCard.setContent(object, "Object: " + capitalize(object), scaledIcon(object, 200));
+        } else {
+            objectCard.hideCard();
         }
-
-        // Add the image panel to visualization panel
-        visualizationPanel.add(imagePanel, BorderLayout.CENTER);
-        visualizationPanel.revalidate();
-        visualizationPanel.repaint();
+        showView(VIEW_PAIR);
     }
 
-    private void updateAnalysisDisplay(ExpertSystem.SentenceAnalysis analysis) {
-        StringBuilder html = new StringBuilder("<html><div style='padding: 10px; text-align: center;'>");
-        html.append("<table style='margin: 0 auto; border-collapse: collapse; width: 100%; table-layout: fixed;'>");
-
-        // Header row
-        html.append("<tr>");
-        html.append("<th style='padding: 5px; color: ").append(toHexColor(darkMode ? DARK_PRIMARY_COLOR : PRIMARY_COLOR)).append("; font-size: 14px; width: 30%;'>Sentence Type</th>");
-        html.append("<th style='padding: 5px; color: ").append(toHexColor(darkMode ? DARK_PRIMARY_COLOR : PRIMARY_COLOR)).append("; font-size: 14px; width: 20%;'>Mood</th>");
-        html.append("<th style='padding: 5px; color: ").append(toHexColor(darkMode ? DARK_PRIMARY_COLOR : PRIMARY_COLOR)).append("; font-size: 14px; width: 20%;'>Subject(s)</th>");
-        html.append("<th style='padding: 5px; color: ").append(toHexColor(darkMode ? DARK_PRIMARY_COLOR : PRIMARY_COLOR)).append("; font-size: 14px; width: 20%;'>Verb(s)</th>");
-        html.append("<th style='padding: 5px; color: ").append(toHexColor(darkMode ? DARK_PRIMARY_COLOR : PRIMARY_COLOR)).append("; font-size: 14px; width: 20%;'>Object(s)</th>");
-        html.append("</tr>");
-
-        // Content row
-        html.append("<tr>");
-
-        // Sentence Type
-        html.append("<td style='padding: 5px; color: ").append(toHexColor(darkMode ? DARK_SECONDARY_COLOR : SECONDARY_COLOR))
-            .append("; font-size: 12px;'>⚡ ").append(capitalize(analysis.getSentenceType()))
-            .append(" Sentence</td>");
-
-        // Mood
-        html.append("<td style='padding: 5px; color: ").append(toHexColor(darkMode ? DARK_SECONDARY_COLOR : SECONDARY_COLOR))
-            .append("; font-size: 12px;'>").append(capitalize(analysis.getMood()))
-            .append("</td>");
-
-        // Subjects
-        html.append("<td style='padding: 5px; color: ").append(toHexColor(SUCCESS_COLOR))
-            .append("; font-size: 12px;'>").append(analysis.getSubjects().isEmpty() ? "N/A" : String.join(", ", analysis.getSubjects()))
-            .append("</td>");
-
-        // Verbs
-        html.append("<td style='padding: 5px; color: ").append(toHexColor(WARNING_COLOR))
-            .append("; font-size: 12px;'>").append(analysis.getVerbs().isEmpty() ? "N/A" : String.join(", ", analysis.getVerbs()))
-            .append("</td>");
-
-        // Objects
-        html.append("<td style='padding: 5px; color: ").append(toHexColor(SECONDARY_COLOR))
-            .append("; font-size: 12px;'>").append(analysis.getObjects().isEmpty() ? "N/A" : String.join(", ", analysis.getObjects()))
-            .append("</td>");
-
-        html.append("</tr>");
-        html.append("</table></div></html>");
-        analysisLabel.setText(html.toString());
+    private void updateAnalysisDisplay(List<ExpertSystem.SentenceAnalysis> analyses) {
+        // One row per sentence
+        analysisTable.setAnalyses(analyses);
     }
 
 
@@ -530,16 +573,28 @@ public class Game extends JFrame {
             return;
         }
 
-        ImageIcon icon = ImageMapper.getImageIcon(object);
+        ImageIcon icon = context.getScaledIcon(object, 400);
         if (icon != null) {
-            Image scaledImage = icon.getImage().getScaledInstance(400, 400, Image.SCALE_SMOOTH);
-            imageLabel.setIcon(new ImageIcon(scaledImage));
+            imageLabel.setIcon(icon);
         } else {
             imageLabel.setIcon(null);
             showError("Image not found for: " + object);
         }
     }
 
+    @Override
+    public void dispose() {
+        if (analysisTimer != null) {
+            analysisTimer.stop();
+        }
+        // dispose() may run more than once (close button, then window close); release only the first time
+        if (context != null) {
+            context.release();
+            context = null;
+        }
+        super.dispose();
+    }
+
     private void updateMessage(String message, Color color) {
         messageLabel.setText(message);
         messageLabel.setForeground(color);
@@ -557,8 +612,5 @@ public class Game extends JFrame {
         return Character.toUpperCase(text.charAt(0)) + text.substring(1).toLowerCase();
     }
 
-    private String toHexColor(Color color) {
-        return String.format("#%02x%02x%02x", color.getRed(), color.getGreen(), color.getBlue());
-    }
     
 }
\ No newline at end of file
@@ -0,0 +1,219 @@
+package main;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+// Golden-corpus regression check for the analyzer.
+// Runs every entry of regression/corpus.txt (sentences, paragraphs, plurals, image lookups), compares
+// the results line for line with regression/expected.tsv, then measures analyzeSentence throughput
+// and heap allocation per sentence and compares them with regression/baseline.properties.
+// Fails (exit status 1) on any output drift, or when throughput drops or allocation grows by more
+// than the threshold.
+//
+//   java main.GoldenCorpus [-dir regression] [-threshold 10] [-rate-threshold 25] [-iterations 1000] [-no-perf]
+//   java main.GoldenCorpus -record      re-records expected outputs and the performance baseline
+//   java main.GoldenCorpus -baseline    re-records only the performance baseline
+// -threshold bounds allocation growth, which is deterministic; -rate-threshold bounds the throughput
+// drop, which is wall-clock and machine-specific, so record the baseline on the machine that runs
+// the check and raise it on shared or noisy hosts.
+public class GoldenCorpus {
+    private static final String CORPUS = "corpus.txt";
+    private static final String EXPECTED = "expected.tsv";
+    private static final String BASELINE = "baseline.properties";
+    private static final int MAX_REPORTED_DIFFS = 20;
+    private static final int ROUNDS = 5;  // Best of several timed rounds, to damp scheduling noise
+
+    // Results of running the corpus, one line per output
+    static List<String> run(List<String> corpus) {
+        List<String> lines = new ArrayList<>();
+        for (String entry : corpus) {
+            if (entry.startsWith("@paragraph ")) {
+                String text = entry.substring("@paragraph ".length());
+                for (ExpertSystem.SentenceAnalysis analysis : ExpertSystem.analyzeParagraph(text, new CoreferenceResolver(16))) {
+                    lines.add("paragraph\t" + format(analysis));
+                }
+            } else if (entry.startsWith("@plural ")) {
+                String word = entry.substring("@plural ".length()).trim();
+                lines.add("plural\t" + word + "\t" + ExpertSystem.generatePlural(word));
+            } else if (entry.startsWith("@image ")) {
+                String word = entry.substring("@image ".length()).trim();
+                URL url = ImageMapper.getImageURL(word);
+                String path = url == null ? "-" : url.getPath();
+                lines.add("image\t" + word + "\t" + path.substring(path.lastIndexOf('/') + 1));
+            } else {
+                lines.add("sentence\t" + format(ExpertSystem.analyzeSentence(entry)));
+            }
+        }
+        return lines;
+    }
+
+    // Every observable field of an analysis; maps are sorted so the line doesn't depend on hash order
+    static String format(ExpertSystem.SentenceAnalysis analysis) {
+        return String.join("\t",
+            analysis.getText().replace('\t', ' '),
+            analysis.getSentenceType(),
+            analysis.getMood(),
+            String.valueOf(analysis.isSentence()),
+            String.join(",", analysis.getSubjects()),
+            String.join(",", analysis.getVerbs()),
+            String.join(",", analysis.getObjects()),
+            String.valueOf(analysis.getMainSubject()),
+            String.valueOf(analysis.getMainObject()),
+            format(analysis.getResolvedAliases()),
+            format(analysis.getSpellingCorrections()),
+            format(analysis.getResolvedPronouns()));
+    }
+
+    private static String format(Map<String, String> map) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> entry : new TreeMap<>(map).entrySet()) {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(entry.getKey()).append('=').append(entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    // Sentences per second and bytes allocated per sentence for analyzeSentence over the corpus sentences
+    static double[] measure(List<String> sentences, int iterations) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long sink = 0;
+        // Warm-up as long as a round: analyzeSentence is large, and until C2 has compiled it the rounds
+        // would time the interpreter and count allocations that escape analysis later removes
+        for (int i = 0; i < iterations; i++) {
+            for (String sentence : sentences) {
+                sink += ExpertSystem.analyzeSentence(sentence).getVerbs().size();
+            }
+        }
+        double bestRate = 0;
+        double leastBytes = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                for (String sentence : sentences) {
+                    sink += ExpertSystem.analyzeSentence(sentence).getVerbs().size();
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+            long count = (long) iterations * sentences.size();
+            bestRate = Math.max(bestRate, count / (elapsed / 1e9));
+            leastBytes = Math.min(leastBytes, (double) allocated / count);
+        }
+        if (sink == 42) System.out.print("");  // Keeps the results observable to the JIT
+        return new double[] {bestRate, leastBytes};
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get("regression");
+        double threshold = 10;
+        double rateThreshold = 25;
+        int iterations = 1000;
+        boolean record = false, baselineOnly = false, perf = true;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-dir": dir = Paths.get(args[++i]); break;
+                case "-threshold": threshold = Double.parseDouble(args[++i]); break;
+                case "-rate-threshold": rateThreshold = Double.parseDouble(args[++i]); break;
+                case "-iterations": iterations = Integer.parseInt(args[++i]); break;
+                case "-record": record = true; break;
+                case "-baseline": baselineOnly = true; break;
+                case "-no-perf": perf = false; break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        List<String> corpus = new ArrayList<>();
+        List<String> sentences = new ArrayList<>();
+        for (String line : Files.readAllLines(dir.resolve(CORPUS), StandardCharsets.UTF_8)) {
+            if (line.trim().isEmpty() || line.startsWith("#")) continue;
+            corpus.add(line);
+            if (!line.startsWith("@")) sentences.add(line);
+        }
+        List<String> actual = run(corpus);
+        Path expectedFile = dir.resolve(EXPECTED);
+        Path baselineFile = dir.resolve(BASELINE);
+
+        if (record) {
+            Files.write(expectedFile, actual, StandardCharsets.UTF_8);
+            System.out.println("Recorded " + actual.size() + " expected outputs to " + expectedFile);
+        }
+        boolean failed = false;
+        if (!record && !baselineOnly) {
+            failed = !compareOutputs(Files.readAllLines(expectedFile, StandardCharsets.UTF_8), actual);
+        }
+        if (record || baselineOnly) {
+            double[] measured = measure(sentences, iterations);
+            Properties baseline = new Properties();
+            baseline.setProperty("sentencesPerSecond", String.format(Locale.ROOT, "%.0f", measured[0]));
+            baseline.setProperty("bytesPerSentence", String.format(Locale.ROOT, "%.0f", measured[1]));
+            baseline.setProperty("java.version", System.getProperty("java.version"));
+            baseline.setProperty("iterations", String.valueOf(iterations));
+            try (Writer out = Files.newBufferedWriter(baselineFile, StandardCharsets.UTF_8)) {
+                baseline.store(out, "Performance baseline for main.GoldenCorpus; machine-specific, re-record with -baseline");
+            }
+            System.out.printf(Locale.ROOT, "Recorded baseline: %.0f sentences/s, %.0f bytes/sentence%n", measured[0], measured[1]);
+        } else if (perf) {
+            failed |= !comparePerformance(baselineFile, measure(sentences, iterations), threshold, rateThreshold);
+        }
+        if (failed) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+
+    private static boolean compareOutputs(List<String> expected, List<String> actual) {
+        int diffs = 0;
+        for (int i = 0; i < Math.max(expected.size(), actual.size()); i++) {
+            String want = i < expected.size() ? expected.get(i) : "<missing>";
+            String got = i < actual.size() ? actual.get(i) : "<missing>";
+            if (!want.equals(got)) {
+                if (++diffs <= MAX_REPORTED_DIFFS) {
+                    System.out.println("Output drift at line " + (i + 1) + ":");
+                    System.out.println("  expected: " + want);
+                    System.out.println("  actual:   " + got);
+                }
+            }
+        }
+        if (diffs > MAX_REPORTED_DIFFS) {
+            System.out.println("... and " + (diffs - MAX_REPORTED_DIFFS) + " more");
+        }
+        System.out.println("Outputs: " + (actual.size() - diffs) + "/" + Math.max(expected.size(), actual.size()) + " match");
+        return diffs == 0;
+    }
+
+    private static boolean comparePerformance(Path baselineFile, double[] measured, double threshold, double rateThreshold) throws IOException {
+        if (!Files.exists(baselineFile)) {
+            System.out.println("No performance baseline; record one with -baseline");
+            return true;
+        }
+        Properties baseline = new Properties();
+        try (Reader in = Files.newBufferedReader(baselineFile, StandardCharsets.UTF_8)) {
+            baseline.load(in);
+        }
+        double baseRate = Double.parseDouble(baseline.getProperty("sentencesPerSecond"));
+        double baseBytes = Double.parseDouble(baseline.getProperty("bytesPerSentence"));
+        double slowdown = (baseRate - measured[0]) / baseRate * 100;
+        double growth = (measured[1] - baseBytes) / baseBytes * 100;
+        System.out.printf(Locale.ROOT, "Throughput: %.0f sentences/s (baseline %.0f, %+.1f%%)%n", measured[0], baseRate, -slowdown);
+        System.out.printf(Locale.ROOT, "Allocation: %.0f bytes/sentence (baseline %.0f, %+.1f%%)%n", measured[1], baseBytes, growth);
+        boolean ok = true;
+        if (slowdown > rateThreshold) {
+            System.out.printf(Locale.ROOT, "Throughput regressed by %.1f%% (threshold %.1f%%)%n", slowdown, rateThreshold);
+            ok = false;
+        }
+        if (growth > threshold) {
+            System.out.printf(Locale.ROOT, "Allocation grew by %.1f%% (threshold %.1f%%)%n", growth, threshold);
+            ok = false;
+        }
+        return ok;
+    }
+}
@@ -0,0 +1,416 @@
+package main;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+// IMA ADPCM codec for the game's sounds.
+// The assets under res/sounds are standard WAV files in IMA ADPCM (format tag 0x11, 4 bits per
+// sample, a quarter of 16-bit PCM) that any player opens; Java Sound can't decode them, so
+// getAudioInputStream() wraps the file in a decoder that turns one block at a time back into
+// 16-bit PCM. Plain PCM WAVs (and anything else Java Sound reads) still load unchanged.
+// Running the class converts PCM WAVs in place and reports the signal-to-noise ratio of the result:
+//   java main.ImaAdpcm [res/sounds | file.wav ...]
+public final class ImaAdpcm {
+    static final int FORMAT_TAG = 0x11;
+    private static final int FORMAT_PCM = 1;
+
+    private static final int[] INDEX_TABLE = {-1, -1, -1, -1, 2, 4, 6, 8, -1, -1, -1, -1, 2, 4, 6, 8};
+    private static final int[] STEP_TABLE = {
+        7, 8, 9, 10, 11, 12, 13, 14, 16, 17, 19, 21, 23, 25, 28, 31, 34, 37, 41, 45, 50, 55, 60, 66,
+        73, 80, 88, 97, 107, 118, 130, 143, 157, 173, 190, 209, 230, 253, 279, 307, 337, 371, 408, 449,
+        494, 544, 598, 658, 724, 796, 876, 963, 1060, 1166, 1282, 1411, 1552, 1707, 1878, 2066, 2272,
+        2499, 2749, 3024, 3327, 3660, 4026, 4428, 4871, 5358, 5894, 6484, 7132, 7845, 8630, 9493, 10442,
+        11487, 12635, 13899, 15289, 16818, 18500, 20350, 22385, 24623, 27086, 29794, 32767
+    };
+
+    private ImaAdpcm() {
+    }
+
+    // The fmt and fact chunks of a WAV file; the stream it was read from is left at the start of the sample data
+    static final class Header {
+        int formatTag;
+        int channels;
+        int sampleRate;
+        int blockAlign;
+        int bitsPerSample;
+        int samplesPerBlock;
+        long frames = -1;  // From the fact chunk, -1 if there is none
+        long dataBytes;
+
+        // The 16-bit PCM the samples decode to
+        AudioFormat pcmFormat() {
+            return new AudioFormat(sampleRate, 16, channels, true, false);
+        }
+
+        long pcmFrames() {
+            if (frames >= 0) return frames;
+            // Without a fact chunk, assume every block is full
+            return dataBytes / blockAlign * samplesPerBlock;
+        }
+    }
+
+    // Opens a sound as PCM: IMA ADPCM WAVs through the decoder, everything else through Java Sound
+    public static AudioInputStream getAudioInputStream(URL url) throws IOException, UnsupportedAudioFileException {
+        InputStream in = new BufferedInputStream(url.openStream());
+        Header header;
+        try {
+            header = readHeader(in);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+        if (header == null || header.formatTag != FORMAT_TAG) {
+            in.close();
+            return AudioSystem.getAudioInputStream(url);
+        }
+        return new AudioInputStream(new Decoder(in, header), header.pcmFormat(), header.pcmFrames());
+    }
+
+    // Reads the RIFF header up to the data chunk; null if the stream isn't a WAV file
+    static Header readHeader(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        byte[] id = new byte[4];
+        data.readFully(id);
+        if (!"RIFF".equals(new String(id, "US-ASCII"))) return null;
+        readInt(data);
+        data.readFully(id);
+        if (!"WAVE".equals(new String(id, "US-ASCII"))) return null;
+        Header header = null;
+        while (true) {
+            data.readFully(id);
+            String chunk = new String(id, "US-ASCII");
+            long size = readInt(data) & 0xffffffffL;
+            if (chunk.equals("data")) {
+                if (header == null) throw new IOException("WAV data before its fmt chunk");
+                header.dataBytes = size;
+                return header;
+            }
+            long consumed = 0;
+            if (chunk.equals("fmt ")) {
+                header = new Header();
+                header.formatTag = readShort(data);
+                header.channels = readShort(data);
+                header.sampleRate = readInt(data);
+                readInt(data);  // Average bytes per second
+                header.blockAlign = readShort(data);
+                header.bitsPerSample = readShort(data);
+                consumed = 16;
+                if (header.formatTag == FORMAT_TAG) {
+                    if (size < 20 || header.channels < 1 || header.blockAlign < 8 * header.channels) {
+                        throw new IOException("Malformed IMA ADPCM format chunk");
+                    }
+                    readShort(data);  // Extra size, always 2
+                    header.samplesPerBlock = readShort(data);
+                    consumed = 20;
+                }
+            } else if (chunk.equals("fact") && header != null && size >= 4) {
+                header.frames = readInt(data) & 0xffffffffL;
+                consumed = 4;
+            }
+            // Chunks are padded to an even size
+            data.skipNBytes(size - consumed + (size & 1));
+        }
+    }
+
+    // Turns IMA ADPCM blocks back into interleaved 16-bit little-endian PCM, one block at a time
+    static final class Decoder extends InputStream {
+        private final InputStream in;
+        private final int channels;
+        private final byte[] block;
+        private final byte[] pcm;
+        private final int[] predictor;
+        private final int[] index;
+        private long remainingFrames;
+        private long remainingBytes;
+        private int position, limit;
+
+        Decoder(InputStream in, Header header) {
+            this.in = in;
+            this.channels = header.channels;
+            this.block = new byte[header.blockAlign];
+            // Sized from the block rather than the header's samples per block, which a damaged file could understate
+            this.pcm = new byte[(1 + (header.blockAlign - 4 * channels) / (4 * channels) * 8) * channels * 2];
+            this.predictor = new int[channels];
+            this.index = new int[channels];
+            this.remainingFrames = header.pcmFrames();
+            this.remainingBytes = header.dataBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            if (position == limit && !decodeBlock()) return -1;
+            int n = Math.min(len, limit - position);
+            System.arraycopy(pcm, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return limit - position;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private boolean decodeBlock() throws IOException {
+            if (remainingFrames <= 0 || remainingBytes <= 0) return false;
+            int length = (int) Math.min(block.length, remainingBytes);
+            int read = in.readNBytes(block, 0, length);
+            remainingBytes -= length;
+            int headerBytes = 4 * channels;
+            if (read < headerBytes) return false;
+
+            // Each channel starts with its first sample verbatim, then 8 samples per 4 bytes, channels interleaved every 4 bytes
+            for (int c = 0; c < channels; c++) {
+                predictor[c] = (short) ((block[4 * c] & 0xff) | (block[4 * c + 1] << 8));
+                index[c] = Math.min(block[4 * c + 2] & 0xff, STEP_TABLE.length - 1);
+                putSample(0, c, predictor[c]);
+            }
+            int groups = (read - headerBytes) / headerBytes;
+            int offset = headerBytes;
+            for (int g = 0; g < groups; g++) {
+                for (int c = 0; c < channels; c++) {
+                    int frame = 1 + g * 8;
+                    for (int k = 0; k < 4; k++) {
+                        int packed = block[offset++];
+                        putSample(frame++, c, decode(packed & 0x0f, c));
+                        putSample(frame++, c, decode((packed >> 4) & 0x0f, c));
+                    }
+                }
+            }
+            int frames = (int) Math.min(1 + groups * 8, remainingFrames);
+            remainingFrames -= frames;
+            position = 0;
+            limit = frames * channels * 2;
+            return true;
+        }
+
+        private int decode(int nibble, int channel) {
+            int step = STEP_TABLE[index[channel]];
+            predictor[channel] = clamp(predictor[channel] + difference(nibble, step));
+            index[channel] = Math.max(0, Math.min(STEP_TABLE.length - 1, index[channel] + INDEX_TABLE[nibble]));
+            return predictor[channel];
+        }
+
+        private void putSample(int frame, int channel, int sample) {
+            int i = (frame * channels + channel) * 2;
+            pcm[i] = (byte) sample;
+            pcm[i + 1] = (byte) (sample >> 8);
+        }
+    }
+
+    // Encodes interleaved 16-bit samples into a complete IMA ADPCM WAV file
+    static byte[] encode(short[] samples, int channels, int sampleRate) {
+        // The customary block size: 256 bytes per channel at 11 kHz, doubling with the rate
+        int blockAlign = 256 * channels * Math.max(1, sampleRate / 11025);
+        int samplesPerBlock = (blockAlign - 4 * channels) * 8 / (4 * channels) + 1;
+        int frames = samples.length / channels;
+        int blocks = (frames + samplesPerBlock - 1) / samplesPerBlock;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(60 + blocks * blockAlign);
+        int dataBytes = blocks * blockAlign;
+        writeAscii(out, "RIFF");
+        writeInt(out, 4 + (8 + 20) + (8 + 4) + (8 + dataBytes));
+        writeAscii(out, "WAVE");
+        writeAscii(out, "fmt ");
+        writeInt(out, 20);
+        writeShort(out, FORMAT_TAG);
+        writeShort(out, channels);
+        writeInt(out, sampleRate);
+        writeInt(out, (int) ((long) sampleRate * blockAlign / samplesPerBlock));
+        writeShort(out, blockAlign);
+        writeShort(out, 4);
+        writeShort(out, 2);
+        writeShort(out, samplesPerBlock);
+        writeAscii(out, "fact");
+        writeInt(out, 4);
+        writeInt(out, frames);
+        writeAscii(out, "data");
+        writeInt(out, dataBytes);
+
+        int[] predictor = new int[channels];
+        int[] index = new int[channels];
+        byte[] block = new byte[blockAlign];
+        for (int b = 0; b < blocks; b++) {
+            int first = b * samplesPerBlock;
+            for (int c = 0; c < channels; c++) {
+                // The header carries the first sample exactly; the step index continues from the previous block
+                predictor[c] = sample(samples, channels, frames, first, c);
+                block[4 * c] = (byte) predictor[c];
+                block[4 * c + 1] = (byte) (predictor[c] >> 8);
+                block[4 * c + 2] = (byte) index[c];
+                block[4 * c + 3] = 0;
+            }
+            int offset = 4 * channels;
+            for (int g = 0; g < (samplesPerBlock - 1) / 8; g++) {
+                for (int c = 0; c < channels; c++) {
+                    int frame = first + 1 + g * 8;
+                    for (int k = 0; k < 4; k++) {
+                        int low = encodeSample(sample(samples, channels, frames, frame++, c), predictor, index, c);
+                        int high = encodeSample(sample(samples, channels, frames, frame++, c), predictor, index, c);
+                        block[offset++] = (byte) (low | high << 4);
+                    }
+                }
+            }
+            out.write(block, 0, blockAlign);
+        }
+        return out.toByteArray();
+    }
+
+    // Past the end the last sample repeats, so the padding in the final block stays silent
+    private static int sample(short[] samples, int channels, int frames, int frame, int channel) {
+        return frames == 0 ? 0 : samples[Math.min(frame, frames - 1) * channels + channel];
+    }
+
+    // Picks the nibble closest to the sample, then steps the predictor exactly as the decoder will
+    private static int encodeSample(int sample, int[] predictor, int[] index, int channel) {
+        int step = STEP_TABLE[index[channel]];
+        int diff = sample - predictor[channel];
+        int nibble = 0;
+        if (diff < 0) {
+            nibble = 8;
+            diff = -diff;
+        }
+        if (diff >= step) {
+            nibble |= 4;
+            diff -= step;
+        }
+        if (diff >= step >> 1) {
+            nibble |= 2;
+            diff -= step >> 1;
+        }
+        if (diff >= step >> 2) {
+            nibble |= 1;
+        }
+        predictor[channel] = clamp(predictor[channel] + difference(nibble, step));
+        index[channel] = Math.max(0, Math.min(STEP_TABLE.length - 1, index[channel] + INDEX_TABLE[nibble]));
+        return nibble;
+    }
+
+    private static int difference(int nibble, int step) {
+        int diff = step >> 3;
+        if ((nibble & 4) != 0) diff += step;
+        if ((nibble & 2) != 0) diff += step >> 1;
+        if ((nibble & 1) != 0) diff += step >> 2;
+        return (nibble & 8) != 0 ? -diff : diff;
+    }
+
+    private static int clamp(int sample) {
+        return Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sample));
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Path> files = new ArrayList<>();
+        for (String arg : args.length == 0 ? new String[] {"res/sounds"} : args) {
+            Path path = Paths.get(arg);
+            if (Files.isDirectory(path)) {
+                try (DirectoryStream<Path> dir = Files.newDirectoryStream(path, "*.wav")) {
+                    dir.forEach(files::add);
+                }
+            } else {
+                files.add(path);
+            }
+        }
+        files.sort(null);
+        for (Path file : files) {
+            compress(file);
+        }
+    }
+
+    // Replaces a PCM WAV with its IMA ADPCM encoding; already compressed files are left alone
+    private static void compress(Path file) throws IOException, UnsupportedAudioFileException {
+        Header header;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            header = readHeader(in);
+        }
+        if (header != null && header.formatTag == FORMAT_TAG) {
+            System.out.println(file + ": already IMA ADPCM");
+            return;
+        }
+        if (header == null || header.formatTag != FORMAT_PCM) {
+            System.out.println(file + ": skipped, not a PCM WAV");
+            return;
+        }
+        short[] samples;
+        AudioFormat format;
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(file.toFile());
+             AudioInputStream pcm = AudioSystem.getAudioInputStream(
+                 new AudioFormat(source.getFormat().getSampleRate(), 16, source.getFormat().getChannels(), true, false), source)) {
+            format = pcm.getFormat();
+            byte[] bytes = pcm.readAllBytes();
+            samples = new short[bytes.length / 2];
+            for (int i = 0; i < samples.length; i++) {
+                samples[i] = (short) ((bytes[2 * i] & 0xff) | (bytes[2 * i + 1] << 8));
+            }
+        }
+        byte[] encoded = encode(samples, format.getChannels(), (int) format.getSampleRate());
+
+        // Decode it again to check the round trip and measure the quantization noise
+        double signal = 0, noise = 0;
+        try (AudioInputStream decoded = getDecodedStream(encoded)) {
+            byte[] bytes = decoded.readAllBytes();
+            if (bytes.length != samples.length * 2) {
+                throw new IOException(file + ": decoded " + bytes.length / 2 + " samples, encoded " + samples.length);
+            }
+            for (int i = 0; i < samples.length; i++) {
+                int restored = (short) ((bytes[2 * i] & 0xff) | (bytes[2 * i + 1] << 8));
+                signal += (double) samples[i] * samples[i];
+                noise += (double) (samples[i] - restored) * (samples[i] - restored);
+            }
+        }
+        long before = Files.size(file);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, encoded);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        System.out.printf(Locale.ROOT, "%s: %d -> %d bytes, SNR %.1f dB%n", file, before, encoded.length,
+            noise == 0 ? Double.POSITIVE_INFINITY : 10 * Math.log10(signal / noise));
+    }
+
+    private static AudioInputStream getDecodedStream(byte[] wav) throws IOException {
+        InputStream in = new ByteArrayInputStream(wav);
+        Header header = readHeader(in);
+        return new AudioInputStream(new Decoder(in, header), header.pcmFormat(), header.pcmFrames());
+    }
+
+    private static int readShort(DataInputStream in) throws IOException {
+        return Short.reverseBytes(in.readShort()) & 0xffff;
+    }
+
+    private static int readInt(DataInputStream in) throws IOException {
+        return Integer.reverseBytes(in.readInt());
+    }
+
+    private static void writeShort(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >> 8);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        writeShort(out, value);
+        writeShort(out, value >> 16);
+    }
+
+    private static void writeAscii(ByteArrayOutputStream out, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            out.write(text.charAt(i));
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package main;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.FilteredImageSource;
+import java.awt.image.ReplicateScaleFilter;
+import javax.swing.ImageIcon;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Iterator;
+
+// Decodes images straight to roughly the size they are displayed at.
+// The reader is asked for every n-th pixel and row (source subsampling), so a 2000 px photo shown
+// at 200 px is decoded at ~400 px instead of in full. The result is then shrunk in halving steps
+// with bilinear filtering, which looks as good as SCALE_SMOOTH at a fraction of the cost.
+// Progressive JPEGs are several times slower through ImageIO's reader than through the toolkit
+// decoder, so those stream through the toolkit decoder into a replicate filter instead; that also
+// never materializes the full-size pixels on the heap.
+public final class ImageDecoder {
+    // Subsampling stops at twice the target size, leaving the filtered downscale enough pixels to smooth
+    private static final int OVERSAMPLE = 2;
+
+    private ImageDecoder() {
+    }
+
+    // Decodes the image scaled to exactly width x height (stretched, like getScaledInstance)
+    public static BufferedImage decode(URL url, int width, int height) throws IOException {
+        return decode(url, width, height, false);
+    }
+
+    // Decodes the image scaled to fit in width x height, keeping its aspect ratio
+    public static BufferedImage decodeToFit(URL url, int width, int height) throws IOException {
+        return decode(url, width, height, true);
+    }
+
+    private static BufferedImage decode(URL url, int width, int height, boolean keepAspect) throws IOException {
+        FlightEvents.ImageDecodeEvent event = FlightEvents.recording() ? new FlightEvents.ImageDecodeEvent() : null;
+        if (event != null) event.begin();
+        try (InputStream in = url.openStream();
+             ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                throw new IOException("No image reader for " + url);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                if (keepAspect) {
+                    double ratio = Math.min((double) width / sourceWidth, (double) height / sourceHeight);
+                    width = Math.max(1, (int) Math.round(sourceWidth * ratio));
+                    height = Math.max(1, (int) Math.round(sourceHeight * ratio));
+                }
+
+                int step = subsampling(sourceWidth, sourceHeight, width, height);
+                boolean progressive = "jpeg".equalsIgnoreCase(reader.getFormatName()) && isProgressive(stream);
+                BufferedImage decoded;
+                if (progressive) {
+                    decoded = decodeWithToolkit(url, sourceWidth / step, sourceHeight / step);
+                } else {
+                    ImageReadParam param = reader.getDefaultReadParam();
+                    if (step > 1) {
+                        param.setSourceSubsampling(step, step, 0, 0);
+                    }
+                    decoded = reader.read(0, param);
+                }
+                BufferedImage scaled = downscale(decoded, width, height);
+                if (event != null && event.shouldCommit()) {
+                    String path = url.getPath();
+                    event.image = path.substring(path.lastIndexOf('/') + 1);
+                    event.sourceWidth = sourceWidth;
+                    event.sourceHeight = sourceHeight;
+                    event.subsampling = step;
+                    event.progressive = progressive;
+                    event.width = width;
+                    event.height = height;
+                    event.commit();
+                }
+                return scaled;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Scans the JPEG markers up to the frame header; SOF2/6/10/14 mean progressive
+    private static boolean isProgressive(ImageInputStream stream) throws IOException {
+        stream.mark();
+        try {
+            stream.seek(2);  // Past SOI
+            while (true) {
+                int prefix = stream.read();
+                int marker = stream.read();
+                if (prefix != 0xFF || marker < 0) return false;
+                if (marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC) {
+                    return (marker & 0x03) == 0x02;
+                }
+                if (marker == 0xDA || marker == 0xD9) return false;  // Scan or end before any frame header
+                stream.skipBytes(stream.readUnsignedShort() - 2);
+            }
+        } finally {
+            stream.reset();
+        }
+    }
+
+    // Decodes through the toolkit, replicating pixels down to width x height while the rows stream in
+    private static BufferedImage decodeWithToolkit(URL url, int width, int height) throws IOException {
+        Toolkit toolkit = Toolkit.getDefaultToolkit();
+        Image source = toolkit.createImage(url);
+        Image reduced = toolkit.createImage(new FilteredImageSource(source.getSource(), new ReplicateScaleFilter(width, height)));
+        ImageIcon loaded = new ImageIcon(reduced);  // Waits for the decode to finish
+        if (loaded.getImageLoadStatus() != MediaTracker.COMPLETE) {
+            throw new IOException("Could not decode " + url);
+        }
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.drawImage(reduced, 0, 0, null);
+        g2d.dispose();
+        source.flush();
+        return image;
+    }
+
+    // Largest pixel step that still leaves at least OVERSAMPLE times the target in both directions
+    static int subsampling(int sourceWidth, int sourceHeight, int width, int height) {
+        int step = Math.min(sourceWidth / (width * OVERSAMPLE), sourceHeight / (height * OVERSAMPLE));
+        return Math.max(1, step);
+    }
+
+    // Shrinks by halves with bilinear filtering until within 2x, then draws at the exact size
+    static BufferedImage downscale(BufferedImage image, int width, int height) {
+        FlightEvents.ImageScaleEvent event = FlightEvents.recording() ? new FlightEvents.ImageScaleEvent() : null;
+        if (event != null) event.begin();
+        int steps = 0;
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+        do {
+            currentWidth = currentWidth / 2 >= width ? currentWidth / 2 : width;
+            currentHeight = currentHeight / 2 >= height ? currentHeight / 2 : height;
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D g2d = next.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2d.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            g2d.dispose();
+            current = next;
+            steps++;
+        } while (currentWidth != width || currentHeight != height);
+        if (event != null && event.shouldCommit()) {
+            event.sourceWidth = image.getWidth();
+            event.sourceHeight = image.getHeight();
+            event.width = width;
+            event.height = height;
+            event.steps = steps;
+            event.commit();
+        }
+        return current;
+    }
+}
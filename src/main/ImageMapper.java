@@ -1,6 +1,6 @@
 package main;
 
-import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
@@ -15,41 +15,48 @@ public class ImageMapper {
     }
     
     private static void initializeImageMap() {
-        File imagesDir = new File("res/images");
-        
-        // Check if the directory exists and is actually a directory
-        if (imagesDir.exists() && imagesDir.isDirectory()) {
-            // Loop through all files in the directory
-            for (File file : imagesDir.listFiles()) {
-                // Check if it's a file (not a directory) and has an image extension
-                if (file.isFile() && (file.getName().endsWith(".jpg") || 
-                    file.getName().endsWith(".jpeg") || 
-                    file.getName().endsWith(".png"))) {
-                    String fileName = file.getName();
-                    // Get the filename without extension and convert to lowercase
-                    // Example: "RedCar.jpg" becomes "redcar"
-                    String key = fileName.substring(0, fileName.lastIndexOf('.')).toLowerCase();
-                    
-                    try {
-                        // Convert the file to a URL that can be used by ImageIcon
-                        URL imageUrl = file.toURI().toURL();
-                        // Add the main mapping to the HashMap
-                        imageMap.put(key, imageUrl);
-                        
-                        // Add any alternative names (aliases) for this image
-                        addAliasesToImageMap(key, imageUrl);
-                        
-                    } catch (Exception e) {
-                        System.err.println("Error loading image: " + fileName);
-                        e.printStackTrace();
-                    }
+        // Named images come from the content-addressed store's manifest (see ImageStore); names
+        // sharing a stored picture map to the same URL, so it is decoded and cached once
+        ImageStore store = ImageStore.load();
+        for (String name : store.names()) {
+            URL imageUrl = store.get(name);
+            if (imageUrl == null) {
+                System.err.println("Error loading image: " + name);
+                continue;
+            }
+            addImage(name.toLowerCase(), imageUrl);
+        }
+        // Images dropped straight into res/images work too until they are imported into the store;
+        // the file list comes from the generated asset index, not a directory scan
+        for (String path : Resources.list(ImageStore.DIRECTORY)) {
+            String fileName = path.substring(ImageStore.DIRECTORY.length());
+            // Check that it has an image extension and isn't inside store/
+            if (fileName.indexOf('/') < 0 && ImageStore.isImageFile(fileName)) {
+                // Get the filename without extension and convert to lowercase
+                // Example: "RedCar.jpg" becomes "redcar"
+                String key = fileName.substring(0, fileName.lastIndexOf('.')).toLowerCase();
+
+                URL imageUrl = Resources.get(path);
+                if (imageUrl == null) {
+                    System.err.println("Error loading image: " + fileName);
+                    continue;
                 }
+                addImage(key, imageUrl);
             }
-        } else {
-            System.err.println("Error: 'res/images' directory not found.");
+        }
+        if (imageMap.isEmpty()) {
+            System.err.println("Error: no images found in the image manifest or asset index.");
         }
     }
-    
+
+    private static void addImage(String key, URL imageUrl) {
+        // Add the main mapping to the HashMap
+        imageMap.put(key, imageUrl);
+
+        // Add any alternative names (aliases) for this image
+        addAliasesToImageMap(key, imageUrl);
+    }
+
     // if "car" is the base word, it might add "automobile" pointing to the same image
     private static void addAliasesToImageMap(String baseWord, URL imageUrl) {
         // Check if this word has any aliases defined in ExpertSystem
@@ -70,13 +77,17 @@ public class ImageMapper {
         }
     }
 
-    // Method to get an ImageIcon object for a given object name
-    public static ImageIcon getImageIcon(String objectName) {
+    // Finds the image URL for an object name (directly, through an alias, or by spelling correction), or null
+    public static URL getImageURL(String objectName) {
+        FlightEvents.ImageResolveEvent event = FlightEvents.recording() ? new FlightEvents.ImageResolveEvent() : null;
+        if (event != null) event.begin();
+        String resolvedBy = "direct";
         // First try to find the image directly using the provided name
         URL imgURL = imageMap.get(objectName.toLowerCase());
         
         // If not found directly, check if the name is an alias
         if (imgURL == null) {
+            resolvedBy = "alias";
             for (Map.Entry<String, Set<String>> entry : ExpertSystem.WORD_ALIASES.entrySet()) {
                 if (entry.getValue().contains(objectName.toLowerCase())) {
                     imgURL = imageMap.get(entry.getKey().toLowerCase());
@@ -85,6 +96,26 @@ public class ImageMapper {
             }
         }
         
+        // Last resort: the name may be a misspelled keyword ("elephnat")
+        if (imgURL == null) {
+            resolvedBy = "spelling";
+            String corrected = ExpertSystem.correctSpelling(objectName.toLowerCase());
+            if (corrected != null) {
+                imgURL = imageMap.get(corrected);
+            }
+        }
+        if (event != null && event.shouldCommit()) {
+            event.word = objectName;
+            event.resolvedBy = imgURL == null ? "none" : resolvedBy;
+            event.commit();
+        }
+        return imgURL;
+    }
+
+    // Method to get an ImageIcon object for a given object name
+    public static ImageIcon getImageIcon(String objectName) {
+        URL imgURL = getImageURL(objectName);
+        
         // If we found an image URL, create and return an ImageIcon
         // Otherwise return null and log an error
         if (imgURL != null) {
@@ -94,4 +125,25 @@ public class ImageMapper {
             return null;
         }
     }
+
+    // Method to get an ImageIcon already scaled to width x height for a given object name.
+    // Decodes at reduced resolution instead of decoding the full image and scaling it afterwards.
+    public static ImageIcon getScaledIcon(String objectName, int width, int height) {
+        URL imgURL = getImageURL(objectName);
+        if (imgURL == null) {
+            System.err.println("Couldn't find image for: " + objectName);
+            return null;
+        }
+        return getScaledIcon(imgURL, width, height);
+    }
+
+    // The same for an already resolved image URL
+    public static ImageIcon getScaledIcon(URL imgURL, int width, int height) {
+        try {
+            return new ImageIcon(ImageDecoder.decode(imgURL, width, height));
+        } catch (IOException e) {
+            System.err.println("Error decoding image " + imgURL + ": " + e.getMessage());
+            return null;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,280 @@
+package main;
+
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import javax.imageio.ImageIO;
+
+// Content-addressed store for the keyword images.
+// Every distinct image is stored once as images/store/<id>.<ext>, where the id is the first 64 bits
+// of the SHA-256 of its bytes, and images/manifest.txt maps each image name ("cat", "cats",
+// "lazy dog") to the blob holding its picture. Names whose pictures are the same file, or were
+// found to be near-duplicates, point at the same blob, so it is packaged, decoded and cached once.
+//
+//   java main.ImageStore -import [res/images]
+//       moves loose images (res/images/cat.jpg) into the store and adds them to the manifest
+//   java main.ImageStore -dedupe [-distance 6] [-apply] [res/images]
+//       lists groups of near-duplicate blobs by perceptual hash (dHash: the brightness gradient of a
+//       9x8 thumbnail, compared by Hamming distance); -apply repoints each group's names to its
+//       largest image and deletes the other blobs
+// Run AssetIndexer afterwards so the asset index matches the store.
+public final class ImageStore {
+    static final String DIRECTORY = "images/";
+    static final String STORE = "store/";
+    static final String MANIFEST = "manifest.txt";
+    private static final int ID_HEX_DIGITS = 16;
+    private static final int DEFAULT_DISTANCE = 6;  // Of 64 bits; re-encodes and resizes stay well below it
+
+    private final Map<String, String> blobs;  // Image name -> blob file name
+
+    private ImageStore(Map<String, String> blobs) {
+        this.blobs = blobs;
+    }
+
+    // Reads the packaged manifest; an empty store if there is none
+    static ImageStore load() {
+        Map<String, String> blobs = new TreeMap<>();
+        if (Resources.get(DIRECTORY + MANIFEST) != null) {
+            try (BufferedReader reader = Resources.openReader(DIRECTORY + MANIFEST)) {
+                readManifest(reader, blobs);
+            } catch (IOException e) {
+                System.err.println("Error reading image manifest: " + e.getMessage());
+            }
+        }
+        return new ImageStore(blobs);
+    }
+
+    // Image names in the manifest
+    Set<String> names() {
+        return Collections.unmodifiableSet(blobs.keySet());
+    }
+
+    // The stored picture for an image name, or null if the manifest doesn't list it
+    URL get(String name) {
+        String blob = blobs.get(name);
+        return blob == null ? null : Resources.get(DIRECTORY + STORE + blob);
+    }
+
+    private static void readManifest(BufferedReader reader, Map<String, String> blobs) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            int equals = line.lastIndexOf('=');
+            if (equals > 0) {
+                blobs.put(line.substring(0, equals).trim(), line.substring(equals + 1).trim());
+            }
+        }
+    }
+
+    private static Map<String, String> readManifest(Path dir) throws IOException {
+        Map<String, String> blobs = new TreeMap<>();
+        Path manifest = dir.resolve(MANIFEST);
+        if (Files.exists(manifest)) {
+            try (BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+                readManifest(reader, blobs);
+            }
+        }
+        return blobs;
+    }
+
+    private static void writeManifest(Path dir, Map<String, String> blobs) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# Image name = blob in store/ (see main.ImageStore); names sharing a blob share one decoded image");
+        for (Map.Entry<String, String> entry : blobs.entrySet()) {
+            lines.add(entry.getKey() + " = " + entry.getValue());
+        }
+        Files.write(dir.resolve(MANIFEST), lines, StandardCharsets.UTF_8);
+    }
+
+    static boolean isImageFile(String fileName) {
+        String lower = fileName.toLowerCase();
+        return lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png");
+    }
+
+    // Moves loose images into the store; identical files end up as one blob
+    private static void importImages(Path dir) throws IOException {
+        Map<String, String> blobs = readManifest(dir);
+        Path store = dir.resolve(STORE);
+        Files.createDirectories(store);
+        List<Path> loose = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file) && isImageFile(file.getFileName().toString())) {
+                    loose.add(file);
+                }
+            }
+        }
+        Collections.sort(loose);
+        int added = 0, shared = 0;
+        for (Path file : loose) {
+            String fileName = file.getFileName().toString();
+            String extension = fileName.substring(fileName.lastIndexOf('.')).toLowerCase();
+            String blob = contentId(Files.readAllBytes(file)) + extension;
+            Path target = store.resolve(blob);
+            if (Files.exists(target)) {
+                Files.delete(file);
+                shared++;
+            } else {
+                Files.move(file, target);
+            }
+            blobs.put(fileName.substring(0, fileName.lastIndexOf('.')).toLowerCase(), blob);
+            added++;
+        }
+        writeManifest(dir, blobs);
+        System.out.println("Imported " + added + " images (" + shared + " identical to a stored one); "
+            + new HashSet<>(blobs.values()).size() + " blobs for " + blobs.size() + " names");
+    }
+
+    // Groups blobs whose perceptual hashes are within maxDistance bits of the group's largest picture and,
+    // with apply, merges each group
+    private static void dedupe(Path dir, int maxDistance, boolean apply) throws IOException {
+        Map<String, String> blobs = readManifest(dir);
+        Path store = dir.resolve(STORE);
+        List<String> ids = new ArrayList<>(new TreeSet<>(blobs.values()));
+        long[] hashes = new long[ids.size()];
+        int[][] sizes = new int[ids.size()][];
+        for (int i = 0; i < ids.size(); i++) {
+            BufferedImage image = ImageIO.read(store.resolve(ids.get(i)).toFile());
+            if (image == null) throw new IOException("Unreadable image " + ids.get(i));
+            hashes[i] = perceptualHash(image);
+            sizes[i] = new int[] {image.getWidth(), image.getHeight()};
+        }
+
+        // Group around keepers, largest picture first: each blob not yet grouped keeps its own picture and
+        // takes every ungrouped blob within the distance of it. Every member is then close to the picture
+        // it is replaced by; linking through intermediates would chain unrelated images together.
+        Integer[] bySize = new Integer[ids.size()];
+        for (int i = 0; i < bySize.length; i++) bySize[i] = i;
+        Arrays.sort(bySize, (a, b) -> Long.compare((long) sizes[b][0] * sizes[b][1], (long) sizes[a][0] * sizes[a][1]));
+        boolean[] grouped = new boolean[ids.size()];
+        List<List<Integer>> groups = new ArrayList<>();
+        for (int keeper : bySize) {
+            if (grouped[keeper]) continue;
+            List<Integer> group = new ArrayList<>();
+            for (int member : bySize) {
+                if (!grouped[member] && Long.bitCount(hashes[member] ^ hashes[keeper]) <= maxDistance) {
+                    grouped[member] = true;
+                    group.add(member);
+                }
+            }
+            groups.add(group);
+        }
+
+        long saved = 0;
+        int merged = 0;
+        Map<String, String> replacements = new HashMap<>();
+        for (List<Integer> group : groups) {
+            if (group.size() < 2) continue;
+            // The keeper comes first and is the largest picture; the others are smaller copies of it
+            int keep = group.get(0);
+            System.out.println("Near-duplicates:");
+            for (int member : group) {
+                System.out.printf(Locale.ROOT, "  %s %s %5dx%-5d %2d bits  %s%n", member == keep ? "*" : " ", ids.get(member),
+                    sizes[member][0], sizes[member][1], Long.bitCount(hashes[member] ^ hashes[keep]), namesOf(blobs, ids.get(member)));
+                if (member != keep) {
+                    replacements.put(ids.get(member), ids.get(keep));
+                    saved += Files.size(store.resolve(ids.get(member)));
+                    merged++;
+                }
+            }
+        }
+        if (replacements.isEmpty()) {
+            System.out.println("No near-duplicates within " + maxDistance + " bits among " + ids.size() + " blobs");
+            return;
+        }
+        if (!apply) {
+            System.out.println(merged + " blobs (" + saved + " bytes) would be merged; rerun with -apply");
+            return;
+        }
+        for (Map.Entry<String, String> entry : blobs.entrySet()) {
+            String replacement = replacements.get(entry.getValue());
+            if (replacement != null) entry.setValue(replacement);
+        }
+        for (String blob : replacements.keySet()) {
+            Files.delete(store.resolve(blob));
+        }
+        writeManifest(dir, blobs);
+        System.out.println("Merged " + merged + " blobs, " + saved + " bytes");
+    }
+
+    private static String namesOf(Map<String, String> blobs, String blob) {
+        StringJoiner names = new StringJoiner(", ");
+        for (Map.Entry<String, String> entry : blobs.entrySet()) {
+            if (entry.getValue().equals(blob)) names.add(entry.getKey());
+        }
+        return names.toString();
+    }
+
+    // dHash: the image averaged down to a 9x8 grid of luminance cells, one bit per horizontally
+    // adjacent pair of cells, set where brightness falls. Cell averages rather than sampled pixels,
+    // so a resized or re-encoded copy lands on (nearly) the same bits
+    static long perceptualHash(BufferedImage image) {
+        int width = image.getWidth(), height = image.getHeight();
+        long[] sums = new long[9 * 8];
+        int[] counts = new int[9 * 8];
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int cellRow = y * 8 / height * 9;
+            for (int x = 0; x < width; x++) {
+                int cell = cellRow + x * 9 / width;
+                sums[cell] += luminance(row[x]);
+                counts[cell]++;
+            }
+        }
+        long hash = 0;
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                int left = y * 9 + x;
+                // Compare means without dividing: left / countLeft > right / countRight
+                hash = hash << 1 | (sums[left] * counts[left + 1] > sums[left + 1] * counts[left] ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    private static int luminance(int rgb) {
+        return (299 * (rgb >> 16 & 0xFF) + 587 * (rgb >> 8 & 0xFF) + 114 * (rgb & 0xFF)) / 1000;
+    }
+
+    static String contentId(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(ID_HEX_DIGITS);
+            for (int i = 0; i < ID_HEX_DIGITS / 2; i++) {
+                hex.append(Character.forDigit(digest[i] >> 4 & 0xF, 16)).append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);  // Every JVM has SHA-256
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String command = args.length > 0 ? args[0] : "";
+        Path dir = Paths.get("res/images");
+        int distance = DEFAULT_DISTANCE;
+        boolean apply = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "-distance": distance = Integer.parseInt(args[++i]); break;
+                case "-apply": apply = true; break;
+                default: dir = Paths.get(args[i]);
+            }
+        }
+        switch (command) {
+            case "-import": importImages(dir); break;
+            case "-dedupe": dedupe(dir, distance, apply); break;
+            default:
+                System.err.println("Usage: java main.ImageStore -import [res/images]");
+                System.err.println("       java main.ImageStore -dedupe [-distance 6] [-apply] [res/images]");
+                System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+// Category index for the keyword lexicon, built from the "# Animals", "#Vehicles", ... sections of
+// keywords.txt. Each category holds a bitset of lexicon term IDs, so questions like "which of
+// these objects are vehicles" are bitset operations instead of string scans.
+// Filled while the keywords load, read-only afterwards.
+public class KeywordCategories {
+    private final List<String> names = new ArrayList<>();
+    private final List<BitSet> members = new ArrayList<>();
+    private int[] categoryOf = new int[256];  // term id -> category index + 1 (0 = none)
+
+    // Returns the index of a category, adding it if needed (names match case-insensitively)
+    int add(String name) {
+        int existing = find(name);
+        if (existing >= 0) return existing;
+        names.add(name);
+        members.add(new BitSet());
+        return names.size() - 1;
+    }
+
+    // A term keeps the first category it was listed under
+    void assign(int termId, int category) {
+        if (termId >= categoryOf.length) {
+            categoryOf = Arrays.copyOf(categoryOf, Math.max(termId + 1, categoryOf.length * 2));
+        }
+        if (categoryOf[termId] == 0) {
+            categoryOf[termId] = category + 1;
+            members.get(category).set(termId);
+        }
+    }
+
+    // Returns the category index, or -1 if there is no such category
+    public int find(String name) {
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).equalsIgnoreCase(name)) return i;
+        }
+        return -1;
+    }
+
+    public List<String> names() {
+        return Collections.unmodifiableList(names);
+    }
+
+    public String name(int category) {
+        return names.get(category);
+    }
+
+    // Returns the term's category index, or -1 if it has none
+    public int categoryOf(int termId) {
+        return termId >= 0 && termId < categoryOf.length ? categoryOf[termId] - 1 : -1;
+    }
+
+    public boolean contains(int category, int termId) {
+        return termId >= 0 && members.get(category).get(termId);
+    }
+
+    // Returns a copy of the category's term-ID bitset, safe for the caller to and()/or() into
+    public BitSet terms(int category) {
+        return (BitSet) members.get(category).clone();
+    }
+}
@@ -0,0 +1,431 @@
+package main;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+// Everything language-specific the analyzer needs for one language: word classes, pronouns,
+// aliases, plural morphology and the object keywords with their categories.
+// Loaded from res/lexicons/<tag>.lex and immutable afterwards, so one instance is shared by every
+// session and thread analyzing that language (see LexiconRegistry).
+//
+// A .lex file is a list of "[section]" blocks; "#" starts a comment line.
+//   [lexicon]            keywords = <keywords file>, model = <part-of-speech model> (optional),
+//                        ngrams = <n-gram language model> (optional),
+//                        words = <real words the spelling corrector leaves alone> (optional)
+//   [auxiliaries] [verbs] [articles] [prepositions] [terminators] [question words]
+//   [request openers] [request verbs] [invariant plurals]
+//                        whitespace-separated words
+//   [pronouns] [informal] [irregular plurals]
+//                        word = word, one per line
+//   [aliases]            word = alias alias ...
+//   [plural rules]       regex = replacement, tried in order; the first one found in the word is applied
+// The keywords file has the keywords.txt format: "# Category" headers and "word=keyword" lines.
+//
+// The spelling index, part-of-speech tagger, n-gram model and on-disk dictionary are built or opened
+// on first use. -Dpos.model.<tag>=<file>, -Dngram.model.<tag>=<file> and -Dlexicon.dictionary.<tag>=<file.dlx>
+// point them elsewhere; for the default language the plain -Dpos.model, -Dngram.model and
+// -Dlexicon.dictionary work too.
+public final class Lexicon {
+    private final String tag;
+    final Set<String> auxiliaries;
+    final Set<String> verbs;
+    final Set<String> articles;
+    final Set<String> prepositions;
+    final Set<String> terminators;
+    final Set<String> questionWords;
+    final Set<String> requestOpeners;
+    final Set<String> requestVerbs;
+    final Map<String, String> pronouns;   // Personal pronouns and their object forms
+    final Map<String, String> informal;   // Casual words and their formal equivalents
+    final Map<String, Set<String>> aliases;
+    private final Map<String, String> irregularPlurals;
+    private final Set<String> invariantPlurals;
+    private final List<Pattern> pluralPatterns;
+    private final List<String> pluralReplacements;
+    private final OffHeapLexicon keywords = new OffHeapLexicon(1024);  // Object names and their classifications (off-heap)
+    private final KeywordCategories categories = new KeywordCategories();
+    private final Set<String> pluralForms = new HashSet<>();  // Generated plural forms of keywords
+    private final Set<String> realWords = new HashSet<>();  // Ordinary words that are not typos of keywords
+    private final String modelPath;
+    private final String ngramPath;
+    private final String checksum;  // CRC32 of the lexicon, keywords and real-word files
+
+    // Built or opened on first use; the flags are volatile so the fields are read without locking afterwards
+    private SpellingCorrector spelling;
+    private volatile boolean taggerLoaded;
+    private PosTagger tagger;
+    private volatile boolean ngramsLoaded;
+    private NgramModel ngrams;
+    private volatile boolean dictionaryOpened;
+    private DiskLexicon dictionary;
+
+    private Lexicon(String tag, Map<String, List<String>> sections, Map<String, String> settings, CRC32 checksum) throws IOException {
+        this.tag = tag;
+        this.auxiliaries = words(sections, "auxiliaries");
+        this.verbs = words(sections, "verbs");
+        this.articles = words(sections, "articles");
+        this.prepositions = words(sections, "prepositions");
+        this.terminators = words(sections, "terminators");
+        this.questionWords = words(sections, "question words");
+        this.requestOpeners = words(sections, "request openers");
+        this.requestVerbs = words(sections, "request verbs");
+        this.invariantPlurals = words(sections, "invariant plurals");
+        this.pronouns = pairs(sections, "pronouns");
+        this.informal = pairs(sections, "informal");
+        this.irregularPlurals = pairs(sections, "irregular plurals");
+
+        // Aliases are symmetric: "cat = kitty" also files "cat" under "kitty"
+        Map<String, Set<String>> aliasMap = new HashMap<>();
+        for (Map.Entry<String, String> entry : pairs(sections, "aliases").entrySet()) {
+            List<String> alternatives = Arrays.asList(entry.getValue().split("\\s+"));
+            aliasMap.putIfAbsent(entry.getKey(), new HashSet<>(alternatives));
+            for (String alias : alternatives) {
+                aliasMap.computeIfAbsent(alias, k -> new HashSet<>()).add(entry.getKey());
+            }
+        }
+        for (Map.Entry<String, Set<String>> entry : aliasMap.entrySet()) {
+            entry.setValue(Collections.unmodifiableSet(entry.getValue()));
+        }
+        this.aliases = Collections.unmodifiableMap(aliasMap);
+
+        List<Pattern> patterns = new ArrayList<>();
+        List<String> replacements = new ArrayList<>();
+        for (Map.Entry<String, String> rule : pairs(sections, "plural rules").entrySet()) {
+            patterns.add(Pattern.compile(rule.getKey()));
+            replacements.add(rule.getValue());
+        }
+        this.pluralPatterns = patterns;
+        this.pluralReplacements = replacements;
+        this.modelPath = settings.get("model");
+        this.ngramPath = settings.get("ngrams");
+
+        String keywordsPath = settings.get("keywords");
+        if (keywordsPath != null) {
+            loadKeywords(keywordsPath, checksum);
+        }
+        String wordsPath = settings.get("words");
+        if (wordsPath != null) {
+            loadRealWords(wordsPath, checksum);
+        }
+        this.checksum = Long.toHexString(checksum.getValue() | 1L << 32).substring(1);  // Eight hex digits
+    }
+
+    // Loads lexicons/<tag>.lex and the keywords file it names
+    static Lexicon load(String tag) throws IOException {
+        Map<String, List<String>> sections = new LinkedHashMap<>();
+        CRC32 checksum = new CRC32();
+        try (BufferedReader reader = Resources.openReader("lexicons/" + tag + ".lex")) {
+            List<String> current = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                checksum.update(line.getBytes(StandardCharsets.UTF_8));
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                if (line.startsWith("[") && line.endsWith("]")) {
+                    current = sections.computeIfAbsent(line.substring(1, line.length() - 1).trim(), k -> new ArrayList<>());
+                } else if (current != null) {
+                    current.add(line);
+                }
+            }
+        }
+        return new Lexicon(tag, sections, pairs(sections, "lexicon"), checksum);
+    }
+
+    // Language tag of this lexicon ("en", "es", ...)
+    public String getTag() {
+        return tag;
+    }
+
+    // Identifies the lexicon in use: tag and file checksum, plus the on-disk dictionary if one is open
+    public String getVersion() {
+        DiskLexicon dictionary = dictionary();
+        return dictionary == null ? tag + ":" + checksum : tag + ":" + checksum + "+" + Paths.get(setting("lexicon.dictionary")).getFileName();
+    }
+
+    // Generates the plural form of a word, handling special cases like "child" -> "children"
+    public String plural(String singular) {
+        if (singular == null || singular.isEmpty()) return null;
+        String irregular = irregularPlurals.get(singular);
+        if (irregular != null) return irregular;
+        if (invariantPlurals.contains(singular)) return singular;
+        for (int i = 0; i < pluralPatterns.size(); i++) {
+            Matcher matcher = pluralPatterns.get(i).matcher(singular);
+            if (matcher.find()) {
+                return matcher.replaceFirst(pluralReplacements.get(i));
+            }
+        }
+        return singular;
+    }
+
+    // Checks if a word is the plural form of a keyword ("cats", "mice")
+    boolean isPluralKeyword(String word) {
+        return pluralForms.contains(word);
+    }
+
+    // Returns the keyword a word resolves to (e.g. "kittens" -> "kitten"), or null if it is not an object keyword
+    public String getKeyword(String word) {
+        String keyword = keywords.get(word);
+        if (keyword == null) {
+            DiskLexicon dictionary = dictionary();
+            if (dictionary != null) {
+                keyword = dictionary.get(word);
+            }
+        }
+        return keyword;
+    }
+
+    // Checks the in-memory keywords first, then the on-disk dictionary (mostly answered by its Bloom filter)
+    public boolean isKeyword(String word) {
+        if (keywords.containsKey(word)) return true;
+        DiskLexicon dictionary = dictionary();
+        return dictionary != null && dictionary.containsKey(word);
+    }
+
+    // Checks only the in-memory keywords
+    boolean isLoadedKeyword(String word) {
+        return keywords.containsKey(word);
+    }
+
+    // Lexicon term ID of a keyword, or -1; IDs index the category bitsets
+    public int getTermId(String word) {
+        return keywords.keyId(word);
+    }
+
+    public String getTerm(int termId) {
+        return keywords.keyOf(termId);
+    }
+
+    public KeywordCategories getCategories() {
+        return categories;
+    }
+
+    // Deletion index over the keywords, built on first use
+    synchronized SpellingCorrector spelling(int maxDistance, int maxCandidates) {
+        if (spelling == null) {
+            spelling = new SpellingCorrector(keywords.keys(), maxDistance, maxCandidates);
+        }
+        return spelling;
+    }
+
+    // Part-of-speech model for words outside the fixed lists, or null when the language has none
+    PosTagger tagger() {
+        if (!taggerLoaded) {
+            synchronized (this) {
+                if (!taggerLoaded) {
+                    tagger = loadTagger();
+                    taggerLoaded = true;
+                }
+            }
+        }
+        return tagger;
+    }
+
+    // Language model for plausibility scores, or null when the language has none
+    NgramModel ngrams() {
+        if (!ngramsLoaded) {
+            synchronized (this) {
+                if (!ngramsLoaded) {
+                    ngrams = loadNgrams();
+                    ngramsLoaded = true;
+                }
+            }
+        }
+        return ngrams;
+    }
+
+    // Optional large dictionary kept on disk and consulted after the in-memory keywords
+    DiskLexicon dictionary() {
+        if (!dictionaryOpened) {
+            synchronized (this) {
+                if (!dictionaryOpened) {
+                    dictionary = openDictionary();
+                    dictionaryOpened = true;
+                }
+            }
+        }
+        return dictionary;
+    }
+
+    // Off-heap bytes held by the keywords, for eviction and memory reports
+    long offHeapBytes() {
+        return keywords.offHeapBytes();
+    }
+
+    private PosTagger loadTagger() {
+        String path = setting("pos.model");
+        try {
+            URL url = path != null ? Paths.get(path).toUri().toURL() : modelPath != null ? Resources.get(modelPath) : null;
+            return url == null ? null : PosTagger.load(url);
+        } catch (IOException e) {
+            System.err.println("Error loading part-of-speech model for " + tag + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private NgramModel loadNgrams() {
+        String path = setting("ngram.model");
+        try {
+            URL url = path != null ? Paths.get(path).toUri().toURL() : ngramPath != null ? Resources.get(ngramPath) : null;
+            return url == null ? null : NgramModel.load(url);
+        } catch (IOException e) {
+            System.err.println("Error loading n-gram model for " + tag + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private DiskLexicon openDictionary() {
+        String path = setting("lexicon.dictionary");
+        if (path == null) return null;
+        try {
+            return new DiskLexicon(Paths.get(path), Integer.getInteger("lexicon.cacheSize", 4096));
+        } catch (IOException e) {
+            System.err.println("Error opening dictionary " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // -D<name>.<tag>, or plain -D<name> for the default language
+    private String setting(String name) {
+        String value = System.getProperty(name + "." + tag);
+        if (value == null && tag.equals(LexiconRegistry.DEFAULT_TAG)) {
+            value = System.getProperty(name);
+        }
+        return value;
+    }
+
+    // Loads object keywords and processes them (singular/plural)
+    private void loadKeywords(String resourcePath, CRC32 checksum) throws IOException {
+        try (BufferedReader br = Resources.openReader(resourcePath)) {
+            String line;
+            int category = -1;
+            while ((line = br.readLine()) != null) {
+                checksum.update(line.getBytes(StandardCharsets.UTF_8));
+                // Section headers ("# Animals", "#Vehicles") name the category of the keywords below them
+                if (line.startsWith("#")) {
+                    String name = line.substring(1).trim();
+                    category = name.isEmpty() ? -1 : categories.add(name);
+                    continue;
+                }
+                if (line.trim().isEmpty()) continue; // Skip empty line
+
+                String[] parts = line.split("=");
+                if (parts.length == 2) {
+                    String singular = parts[0].trim();
+                    String value = parts[1].trim();
+
+                    // First, add the base word and its value
+                    putKeyword(singular, value, category);
+
+                    // Then add its plural form
+                    String plural = plural(singular);
+                    if (plural != null) {
+                        putKeyword(plural, value, category);
+                        if (!plural.equals(singular)) {
+                            pluralForms.add(plural);
+                        }
+                    }
+
+                    // Process aliases for this keyword
+                    processAliasesForKeyword(singular, value, category);
+                }
+            }
+        }
+    }
+
+    // Adds a keyword and files it under its category (if any)
+    private void putKeyword(String word, String value, int category) {
+        keywords.put(word, value);
+        if (category >= 0) {
+            categories.assign(keywords.keyId(word), category);
+        }
+    }
+
+    // Processes aliases for a given keyword and adds them to the object keywords
+    private void processAliasesForKeyword(String baseWord, String value, int category) {
+        // Get aliases for the base word
+        Set<String> alternatives = aliases.get(baseWord);
+        if (alternatives != null) {
+            for (String alias : alternatives) {
+                // Add the alias with the same value, and its plural form
+                putKeyword(alias, value, category);
+                String aliasPlural = plural(alias);
+                if (aliasPlural != null) {
+                    putKeyword(aliasPlural, value, category);
+                }
+            }
+        }
+
+        // Check if this word is an alias for something else
+        for (Map.Entry<String, Set<String>> entry : aliases.entrySet()) {
+            if (entry.getValue().contains(baseWord)) {
+                // If this word is an alias, it should have the same value as its base word
+                putKeyword(baseWord, value, category);
+                String plural = plural(baseWord);
+                if (plural != null) {
+                    putKeyword(plural, value, category);
+                }
+            }
+        }
+    }
+
+    private void loadRealWords(String resourcePath, CRC32 checksum) throws IOException {
+        try (BufferedReader reader = Resources.openReader(resourcePath)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                checksum.update(line.getBytes(StandardCharsets.UTF_8));
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                realWords.addAll(Arrays.asList(line.split("\\s+")));
+            }
+        }
+    }
+
+    // Whether the word, or the base form of a regularly inflected one ("bottles", "summers", "tried",
+    // "painting"), is in the real-word list: such a word is meant as written, not a misspelled keyword
+    boolean isRealWord(String word) {
+        if (realWords.isEmpty()) return false;
+        if (realWords.contains(word)) return true;
+        int n = word.length();
+        if (word.endsWith("ies") || word.endsWith("ied")) {
+            if (realWords.contains(word.substring(0, n - 3) + "y")) return true;
+        }
+        if (word.endsWith("es") || word.endsWith("ed")) {
+            if (realWords.contains(word.substring(0, n - 2)) || realWords.contains(word.substring(0, n - 1))) return true;
+        }
+        if (word.endsWith("s") && realWords.contains(word.substring(0, n - 1))) return true;
+        if (word.endsWith("ing") && n > 5) {
+            String stem = word.substring(0, n - 3);
+            return realWords.contains(stem) || realWords.contains(stem + "e");
+        }
+        return false;
+    }
+
+    private static Set<String> words(Map<String, List<String>> sections, String name) {
+        Set<String> words = new HashSet<>();
+        for (String line : sections.getOrDefault(name, Collections.emptyList())) {
+            words.addAll(Arrays.asList(line.split("\\s+")));
+        }
+        return Collections.unmodifiableSet(words);
+    }
+
+    // "key = value" lines, in file order; the value may be empty (e.g. a plural rule that drops a suffix)
+    private static Map<String, String> pairs(Map<String, List<String>> sections, String name) {
+        Map<String, String> pairs = new LinkedHashMap<>();
+        for (String line : sections.getOrDefault(name, Collections.emptyList())) {
+            int separator = line.lastIndexOf(" = ");
+            if (separator >= 0) {
+                pairs.put(line.substring(0, separator).trim(), line.substring(separator + 3).trim());
+            } else if (line.endsWith(" =")) {
+                pairs.put(line.substring(0, line.length() - 2).trim(), "");
+            }
+        }
+        return Collections.unmodifiableMap(pairs);
+    }
+}
@@ -0,0 +1,125 @@
+package main;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Locale-keyed registry of shared Lexicon instances.
+// A language's lexicon is loaded the first time any session asks for it and the same immutable
+// instance is handed to every later caller, so ten sessions in one language cost one lexicon.
+// Only -Dlexicon.maxLocales (default 4) languages stay resident; beyond that the least recently
+// requested one is dropped from the registry (the default language never is). Dropping doesn't
+// invalidate anything: sessions still holding the instance keep using it, and the heap and
+// off-heap memory are reclaimed once the last of them lets go. evict() drops one explicitly.
+public final class LexiconRegistry {
+    static final String DEFAULT_TAG = "en";
+    private static final String DIRECTORY = "lexicons/";
+    private static final String EXTENSION = ".lex";
+    private static final int MAX_RESIDENT = Math.max(1, Integer.getInteger("lexicon.maxLocales", 4));
+
+    // Language tag -> slot, least recently requested first; guarded by itself
+    private static final LinkedHashMap<String, Slot> SLOTS = new LinkedHashMap<>(16, 0.75f, true);
+
+    private LexiconRegistry() {
+    }
+
+    // Loads one language at most once; other languages stay available while it loads
+    private static final class Slot {
+        private final String tag;
+        private Lexicon lexicon;
+
+        Slot(String tag) {
+            this.tag = tag;
+        }
+
+        synchronized Lexicon get() {
+            if (lexicon == null) {
+                try {
+                    lexicon = Lexicon.load(tag);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error loading lexicon " + tag, e);
+                }
+            }
+            return lexicon;
+        }
+    }
+
+    public static Lexicon getDefault() {
+        return get(DEFAULT_TAG);
+    }
+
+    // Returns the shared lexicon for a locale: its full tag ("en-GB") if there is one, otherwise its language.
+    // Throws IllegalArgumentException when neither is available (see available())
+    public static Lexicon get(Locale locale) {
+        String tag = locale.toLanguageTag();
+        if (!isAvailable(tag)) {
+            tag = locale.getLanguage();
+            if (!isAvailable(tag)) {
+                throw new IllegalArgumentException("No lexicon for " + locale.toLanguageTag() + "; available: " + available());
+            }
+        }
+        return get(tag);
+    }
+
+    private static Lexicon get(String tag) {
+        Slot slot;
+        synchronized (SLOTS) {
+            slot = SLOTS.get(tag);
+            if (slot == null) {
+                slot = new Slot(tag);
+                SLOTS.put(tag, slot);
+                trim();
+            }
+        }
+        return slot.get();
+    }
+
+    // Languages with a bundled lexicon, from the asset index
+    public static List<Locale> available() {
+        List<Locale> locales = new ArrayList<>();
+        for (String path : Resources.list(DIRECTORY)) {
+            if (path.endsWith(EXTENSION)) {
+                locales.add(Locale.forLanguageTag(path.substring(DIRECTORY.length(), path.length() - EXTENSION.length())));
+            }
+        }
+        return locales;
+    }
+
+    // Drops a language from the registry; returns false for the default language or one that isn't loaded
+    public static boolean evict(Locale locale) {
+        synchronized (SLOTS) {
+            for (String tag : new String[] {locale.toLanguageTag(), locale.getLanguage()}) {
+                if (!tag.equals(DEFAULT_TAG) && SLOTS.remove(tag) != null) return true;
+            }
+            return false;
+        }
+    }
+
+    // Tags of the languages currently held, least recently requested first
+    public static List<String> resident() {
+        synchronized (SLOTS) {
+            return new ArrayList<>(SLOTS.keySet());
+        }
+    }
+
+    private static boolean isAvailable(String tag) {
+        return !tag.isEmpty() && Resources.get(DIRECTORY + tag + EXTENSION) != null;
+    }
+
+    // Drops the least recently requested languages beyond MAX_RESIDENT, keeping the default
+    private static void trim() {
+        Iterator<Map.Entry<String, Slot>> entries = SLOTS.entrySet().iterator();
+        int excess = SLOTS.size() - MAX_RESIDENT;
+        while (excess > 0 && entries.hasNext()) {
+            if (!entries.next().getKey().equals(DEFAULT_TAG)) {
+                entries.remove();
+                excess--;
+            }
+        }
+    }
+}
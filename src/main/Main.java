@@ -1,14 +1,33 @@
 package main;
 
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 
 public class Main {
     public static void main(String[] args) {
+        Startup.mark("main");
+        boolean training = args.length > 0 && args[0].equals("--train");
+        if (training) {
+            Startup.train();
+        } else {
+            // Lexicon and image index build in the background while the menu comes up
+            Startup.preload();
+        }
+
         SwingUtilities.invokeLater(new Runnable() {
             public void run() {
                 Buttons frame = new Buttons();
                 frame.setVisible(true);
+                Startup.mark("menu visible");
+                SwingUtilities.invokeLater(Startup::report);
+
+                if (training) {
+                    // Let the menu animate briefly so its classes are loaded too, then exit to write the archive
+                    Timer exitTimer = new Timer(3000, e -> System.exit(0));
+                    exitTimer.setRepeats(false);
+                    exitTimer.start();
+                }
             }
         });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,146 @@
+package main;
+
+import java.io.IOException;
+import java.net.URL;
+import javax.sound.sampled.*;
+
+// A looping music track played through a SourceDataLine instead of a Clip.
+// A daemon thread decodes ~100 ms at a time and writes it to a line with ~0.5 s of buffer, starting
+// over at the end of the track, so the whole track is never held as PCM (a Clip of a three-minute
+// track is ~30 MB). stop() pauses at the current position and loop() resumes from there, like a Clip.
+final class MusicStream {
+    private static final int CHUNK_MILLIS = 100;
+    private static final int BUFFER_MILLIS = 500;
+
+    private final String path;
+    private final URL url;
+    private final AudioFormat format;
+    private volatile SourceDataLine line;  // Open while the player thread runs
+    private Thread player;
+    private boolean playing, closed;  // Guarded by this
+
+    private MusicStream(String path, URL url, AudioFormat format) {
+        this.path = path;
+        this.url = url;
+        this.format = format;
+    }
+
+    // Checks that a track exists and can be decoded, reading only its header; null (silence) if not
+    static MusicStream open(String path) {
+        FlightEvents.SoundLoadEvent event = FlightEvents.recording() ? new FlightEvents.SoundLoadEvent() : null;
+        if (event != null) event.begin();
+        MusicStream music = null;
+        long frames = 0;
+        URL url = Resources.get(path);
+        if (url == null) {
+            System.err.println("Sound not found: " + path);
+        } else {
+            try (AudioInputStream stream = ImaAdpcm.getAudioInputStream(url)) {
+                music = new MusicStream(path, url, stream.getFormat());
+                frames = stream.getFrameLength();
+            } catch (UnsupportedAudioFileException | IOException e) {
+                e.printStackTrace();
+            }
+        }
+        if (event != null && event.shouldCommit()) {
+            event.path = path;
+            event.loaded = music != null;
+            event.frames = frames;
+            event.streamed = true;
+            event.commit();
+        }
+        return music;
+    }
+
+    // Plays from the current position, looping until stop() or close()
+    synchronized void loop() {
+        if (playing || closed) return;
+        playing = true;
+        if (player == null) {
+            player = new Thread(this::play, "music " + path);
+            player.setDaemon(true);
+            player.start();
+        } else {
+            notifyAll();
+        }
+        SourceDataLine current = line;
+        if (current != null) {
+            current.start();
+        }
+    }
+
+    // Pauses; the player thread blocks in write() until the line is started again
+    synchronized void stop() {
+        playing = false;
+        SourceDataLine current = line;
+        if (current != null) {
+            current.stop();
+        }
+    }
+
+    // Stops for good; the player thread closes the line, giving it back to the mixer
+    synchronized void close() {
+        closed = true;
+        playing = false;
+        notifyAll();
+        SourceDataLine current = line;
+        if (current != null) {
+            current.stop();
+            current.flush();  // Releases a write() blocked on the stopped line
+        }
+    }
+
+    private void play() {
+        int frameSize = format.getFrameSize() > 0 ? format.getFrameSize() : 4;
+        int framesPerSecond = Math.round(format.getFrameRate());
+        byte[] buffer = new byte[framesPerSecond * CHUNK_MILLIS / 1000 * frameSize];
+        AudioInputStream stream = null;
+        SourceDataLine out = null;
+        try {
+            out = AudioSystem.getSourceDataLine(format);
+            out.open(format, framesPerSecond * BUFFER_MILLIS / 1000 * frameSize);
+            synchronized (this) {
+                line = out;
+                if (playing) out.start();
+            }
+            boolean empty = true;
+            while (true) {
+                synchronized (this) {
+                    while (!playing && !closed) wait();
+                    if (closed) break;
+                }
+                if (stream == null) {
+                    stream = ImaAdpcm.getAudioInputStream(url);
+                }
+                int read = stream.readNBytes(buffer, 0, buffer.length);
+                if (read == 0) {
+                    // End of the track: start over, unless it had nothing to play at all
+                    if (empty) break;
+                    stream.close();
+                    stream = null;
+                    empty = true;
+                    continue;
+                }
+                empty = false;
+                out.write(buffer, 0, read - read % frameSize);
+            }
+        } catch (LineUnavailableException | IllegalArgumentException | IOException | UnsupportedAudioFileException e) {
+            // No usable audio device or a damaged file: the music just stays silent
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            line = null;
+            if (out != null) {
+                out.close();
+            }
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (IOException e) {
+                    // Nothing left to release
+                }
+            }
+        }
+    }
+}
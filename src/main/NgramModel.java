@@ -0,0 +1,368 @@
+package main;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+// Word trigram language model for scoring how plausible a sentence is.
+// Trained offline from a corpus into a binary file that is memory-mapped read-only. Each n-gram is
+// stored only as a 64-bit hash of its words (no vocabulary), in one sorted table read in place
+// through a directory of bucket offsets indexed by the hash's top bits; its log10 probability is
+// quantized to one byte, an index into a 256-entry codebook per order.
+// Probabilities follow "stupid backoff": the relative frequency of the trigram given its context,
+// else 0.4 x the bigram's, else 0.4 x 0.4 x the unigram's, else a fixed score for unknown words.
+// score() returns the mean log10 probability per token, so sentences of any length compare; the
+// model stores a threshold below which a sentence is probably garbage: the score that 95% of the
+// sentences held out of training reach. Scoring hashes the words in place and allocates nothing;
+// each token costs at most three lookups in the mapped table (tens of nanoseconds).
+//
+// No model ships: one needs a corpus of real sentences (the tagger's pos-corpus.txt is not one), and
+// until a language names a model ("ngrams = " in its .lex, or -Dngram.model) every sentence is plausible.
+// Train: java main.NgramModel -train <corpus.txt> <out.model>
+// Try:   java -Dngram.model=<out.model> main.NgramModel "the boy quickly eats apples"
+public class NgramModel {
+    private static final int MAGIC = 0x4E474D31;  // "NGM1"
+    private static final int ORDER = 3;
+    private static final int LEVELS = 256;        // Quantization levels per order
+    private static final float BACKOFF = (float) Math.log10(0.4);
+    private static final int HEADER_BYTES = 32;
+    private static final int HOLDOUT = 10;              // Every tenth sentence calibrates the threshold
+    private static final int THRESHOLD_PERCENTILE = 5;  // Of the held-out sentences' scores
+
+    // Stand-in word hashes for the sentence boundaries
+    private static final long START = 0x9E3779B97F4A7C15L;
+    private static final long END = 0xC2B2AE3D27D4EB4FL;
+
+    private final int bucketShift;  // 64 - bits of the bucket directory
+    private final float unknown;    // Log10 score of a word the corpus never had
+    private final float threshold;  // Scores below this are implausible
+    private final FloatBuffer codebooks;  // [(order - 1) * LEVELS + level]
+    private final IntBuffer buckets;      // [bucket] first entry of the bucket, then the end of the table
+    private final LongBuffer keys;        // Sorted n-gram hashes
+    private final ByteBuffer values;      // [entry] quantization level
+
+    private NgramModel(ByteBuffer model) throws IOException {
+        if (model.getInt() != MAGIC) {
+            throw new IOException("Not an n-gram model");
+        }
+        if (model.getInt() != ORDER) {
+            throw new IOException("Model was trained with a different n-gram order; retrain it");
+        }
+        int entries = model.getInt();
+        unknown = model.getFloat();
+        threshold = Float.parseFloat(System.getProperty("ngram.threshold", String.valueOf(model.getFloat())));
+        int bucketBits = model.getInt();
+        bucketShift = 64 - bucketBits;
+        model.position(HEADER_BYTES);
+        codebooks = slice(model, ORDER * LEVELS * 4).asFloatBuffer();
+        buckets = slice(model, ((1 << bucketBits) + 1) * 4).asIntBuffer();
+        model.position((model.position() + 7) & ~7);  // Keys are 8-byte aligned
+        keys = slice(model, entries * 8).asLongBuffer();
+        values = slice(model, entries);
+    }
+
+    // Maps a model file read-only
+    public static NgramModel load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new NgramModel(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // Maps the model when it is a plain file, otherwise (e.g. inside a jar) copies it into direct memory
+    public static NgramModel load(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return load(Paths.get(url.toURI()));
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+        try (InputStream in = url.openStream()) {
+            byte[] bytes = in.readAllBytes();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+            buffer.put(bytes).flip();
+            return new NgramModel(buffer);
+        }
+    }
+
+    public float getThreshold() {
+        return threshold;
+    }
+
+    // Whether a score from score() is at or above the model's threshold (-Dngram.threshold overrides it)
+    public boolean isPlausible(float score) {
+        return score >= threshold;
+    }
+
+    // Mean log10 probability per token of a lowercase, whitespace-tokenized sentence, counting the
+    // end of the sentence as a token; punctuation around words is ignored. NaN for an empty sentence
+    public float score(List<String> tokens) {
+        long previous = START, current = START;
+        float total = 0;
+        int count = 0;
+        for (int i = 0; i <= tokens.size(); i++) {
+            long word;
+            if (i < tokens.size()) {
+                word = wordHash(tokens.get(i));
+                if (word == 0) continue;  // Punctuation only
+            } else {
+                if (count == 0) return Float.NaN;
+                word = END;
+            }
+            total += probability(previous, current, word);
+            count++;
+            previous = current;
+            current = word;
+        }
+        return total / count;
+    }
+
+    // Log10 probability of word after the two words before it, backing off to shorter contexts
+    private float probability(long first, long second, long word) {
+        int level = find(key(key(key(3, first), second), word));
+        if (level >= 0) return codebooks.get(2 * LEVELS + level);
+        level = find(key(key(2, second), word));
+        if (level >= 0) return BACKOFF + codebooks.get(LEVELS + level);
+        level = find(key(1, word));
+        if (level >= 0) return 2 * BACKOFF + codebooks.get(level);
+        return 2 * BACKOFF + unknown;
+    }
+
+    // The keys are uniformly distributed hashes, so their top bits pick a bucket of about two
+    // entries; a lookup reads the bucket's bounds and scans it, touching two or three cache lines.
+    // Returns the quantization level of the entry, or -1
+    private int find(long key) {
+        int bucket = (int) ((key ^ Long.MIN_VALUE) >>> bucketShift);  // Unsigned top bits, in signed key order
+        int end = buckets.get(bucket + 1);
+        for (int i = buckets.get(bucket); i < end; i++) {
+            long probe = keys.get(i);
+            if (probe == key) return values.get(i) & 0xFF;
+            if (probe > key) break;
+        }
+        return -1;
+    }
+
+    // FNV-1a over the word without its surrounding punctuation ("dog." and "dog" hash alike); 0 if nothing is left
+    static long wordHash(String token) {
+        int start = 0, end = token.length();
+        while (start < end && !Character.isLetterOrDigit(token.charAt(start))) start++;
+        while (end > start && !Character.isLetterOrDigit(token.charAt(end - 1))) end--;
+        if (start == end) return 0;
+        long hash = 0xCBF29CE484222325L;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ token.charAt(i)) * 0x100000001B3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    // Extends an n-gram key by one word; key(order, first word) starts one
+    private static long key(long prefix, long word) {
+        long h = (prefix * 0x9E3779B97F4A7C15L) ^ word;
+        // MurmurHash3 finalizer, so related n-grams spread over the whole table
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // Counts the n-grams of a corpus (one sentence per line; "word/TAG" tokens count as "word", so the
+    // part-of-speech corpus serves as well) and writes the quantized model
+    public static void train(Path corpus, Path model) throws IOException {
+        List<List<String>> sentences = new ArrayList<>();
+        for (String line : Files.readAllLines(corpus, StandardCharsets.UTF_8)) {
+            line = line.trim().toLowerCase();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            List<String> words = new ArrayList<>();
+            for (String token : line.split("\\s+")) {
+                int slash = token.lastIndexOf('/');
+                words.add(slash > 0 ? token.substring(0, slash) : token);
+            }
+            sentences.add(words);
+        }
+
+        // Calibrate the threshold on sentences the model hasn't seen: train on nine tenths, score the rest
+        List<List<String>> training = new ArrayList<>(), heldOut = new ArrayList<>();
+        for (int i = 0; i < sentences.size(); i++) {
+            (i % HOLDOUT == HOLDOUT - 1 ? heldOut : training).add(sentences.get(i));
+        }
+        write(model, new Table(training), Float.NEGATIVE_INFINITY);
+        NgramModel calibration = load(model);
+        float[] scores = new float[heldOut.size()];
+        int scored = 0;
+        for (List<String> sentence : heldOut) {
+            float score = calibration.score(sentence);
+            if (!Float.isNaN(score)) scores[scored++] = score;
+        }
+        Arrays.sort(scores, 0, scored);
+        float threshold = scored == 0 ? Float.NEGATIVE_INFINITY : scores[scored * THRESHOLD_PERCENTILE / 100];
+
+        Table table = new Table(sentences);
+        write(model, table, threshold);
+        System.out.printf(Locale.ROOT, "Trained %d unigrams, %d bigrams and %d trigrams from %d sentences; threshold %.3f%n",
+            table.sizes[0], table.sizes[1], table.sizes[2], sentences.size(), threshold);
+    }
+
+    // Quantized n-gram scores of a set of sentences, keyed and sorted the way find() searches
+    private static final class Table {
+        final TreeMap<Long, Integer> levels = new TreeMap<>();
+        final float[][] codebooks = new float[ORDER][];
+        final int[] sizes = new int[ORDER];
+        final float unknown;
+
+        Table(List<List<String>> sentences) {
+            // Per order: n-gram counts, the context each n-gram extends, and how often each context occurs
+            List<Map<Long, Integer>> counts = new ArrayList<>();
+            List<Map<Long, Long>> contextOf = new ArrayList<>();
+            List<Map<Long, Integer>> contextCounts = new ArrayList<>();
+            for (int n = 0; n < ORDER; n++) {
+                counts.add(new HashMap<>());
+                contextOf.add(new HashMap<>());
+                contextCounts.add(new HashMap<>());
+            }
+            long tokens = 0;
+            for (List<String> sentence : sentences) {
+                long previous = START, current = START;
+                for (int i = 0; i <= sentence.size(); i++) {
+                    long word = i < sentence.size() ? wordHash(sentence.get(i)) : END;
+                    if (word == 0) continue;
+                    tokens++;
+                    long[] contexts = {1, key(2, current), key(key(3, previous), current)};
+                    for (int n = 0; n < ORDER; n++) {
+                        long ngram = key(contexts[n], word);
+                        counts.get(n).merge(ngram, 1, Integer::sum);
+                        contextOf.get(n).put(ngram, contexts[n]);
+                        contextCounts.get(n).merge(contexts[n], 1, Integer::sum);
+                    }
+                    previous = current;
+                    current = word;
+                }
+            }
+
+            // Relative frequencies, quantized per order to LEVELS equally populated bins represented by their means
+            for (int n = 0; n < ORDER; n++) {
+                Map<Long, Float> scores = new HashMap<>();
+                for (Map.Entry<Long, Integer> entry : counts.get(n).entrySet()) {
+                    int context = contextCounts.get(n).get(contextOf.get(n).get(entry.getKey()));
+                    scores.put(entry.getKey(), (float) Math.log10((double) entry.getValue() / context));
+                }
+                codebooks[n] = codebook(scores.values());
+                for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                    levels.put(entry.getKey(), nearest(codebooks[n], entry.getValue()));
+                }
+                sizes[n] = scores.size();
+            }
+            unknown = (float) Math.log10(1.0 / (tokens + sizes[0]));
+        }
+    }
+
+    private static void write(Path model, Table table, float threshold) throws IOException {
+        int entries = table.levels.size();
+        // About two entries per bucket
+        int bucketBits = Math.max(1, 31 - Integer.numberOfLeadingZeros(Math.max(1, entries / 2)));
+        int[] buckets = new int[(1 << bucketBits) + 1];
+        for (long key : table.levels.keySet()) {
+            buckets[(int) ((key ^ Long.MIN_VALUE) >>> (64 - bucketBits)) + 1]++;
+        }
+        for (int i = 1; i < buckets.length; i++) {
+            buckets[i] += buckets[i - 1];
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(model)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(ORDER);
+            out.writeInt(entries);
+            out.writeFloat(table.unknown);
+            out.writeFloat(threshold);
+            out.writeInt(bucketBits);
+            out.write(new byte[HEADER_BYTES - 24]);
+            for (float[] codebook : table.codebooks) {
+                for (float level : codebook) {
+                    out.writeFloat(level);
+                }
+            }
+            for (int offset : buckets) {
+                out.writeInt(offset);
+            }
+            out.write(new byte[-out.size() & 7]);
+            for (long key : table.levels.keySet()) {
+                out.writeLong(key);
+            }
+            for (int level : table.levels.values()) {
+                out.writeByte(level);
+            }
+        }
+    }
+
+    private static float[] codebook(Collection<Float> scores) {
+        float[] sorted = new float[scores.size()];
+        int count = 0;
+        for (float score : scores) {
+            sorted[count++] = score;
+        }
+        Arrays.sort(sorted);
+        float[] codebook = new float[LEVELS];
+        for (int level = 0; level < LEVELS; level++) {
+            int from = (int) ((long) sorted.length * level / LEVELS);
+            int to = (int) ((long) sorted.length * (level + 1) / LEVELS);
+            if (to <= from) {
+                // Fewer scores than levels: repeat the previous level
+                codebook[level] = level == 0 ? (sorted.length == 0 ? 0 : sorted[0]) : codebook[level - 1];
+                continue;
+            }
+            double sum = 0;
+            for (int i = from; i < to; i++) {
+                sum += sorted[i];
+            }
+            codebook[level] = (float) (sum / (to - from));
+        }
+        return codebook;
+    }
+
+    // Index of the codebook level closest to the score
+    private static int nearest(float[] codebook, float score) {
+        int best = 0;
+        for (int level = 1; level < codebook.length; level++) {
+            if (Math.abs(codebook[level] - score) < Math.abs(codebook[best] - score)) best = level;
+        }
+        return best;
+    }
+
+    private static ByteBuffer slice(ByteBuffer model, int bytes) {
+        ByteBuffer view = model.slice();
+        view.limit(bytes);
+        model.position(model.position() + bytes);
+        return view;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 3 && args[0].equals("-train")) {
+            train(Paths.get(args[1]), Paths.get(args[2]));
+            return;
+        }
+        if (args.length == 0) {
+            System.err.println("Usage: java main.NgramModel -train <corpus.txt> <out.model>");
+            System.err.println("       java main.NgramModel \"<sentence>\" ...");
+            System.exit(1);
+        }
+        String path = System.getProperty("ngram.model");
+        URL url = path != null ? Paths.get(path).toUri().toURL() : Resources.get("ngram.model");
+        if (url == null) {
+            System.err.println("No n-gram model; train one and pass it with -Dngram.model=<file>");
+            System.exit(1);
+        }
+        NgramModel model = load(url);
+        for (String sentence : args) {
+            float score = model.score(Arrays.asList(sentence.toLowerCase().trim().split("\\s+")));
+            System.out.printf(Locale.ROOT, "%.3f %s  %s%n", score, model.isPlausible(score) ? "plausible  " : "implausible", sentence);
+        }
+    }
+}
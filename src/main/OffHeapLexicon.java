@@ -0,0 +1,94 @@
+package main;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+// String -> String lexicon map whose keys and values live in an OffHeapStringPool.
+// Keys and values share one pool, so a keyword used as both ("cat=cat") is stored once.
+// Has the Map methods ExpertSystem uses (put/get/containsKey/getOrDefault); get() decodes the
+// value, so callers that only need membership should use containsKey().
+public class OffHeapLexicon {
+    private final OffHeapStringPool pool;
+    private IntBuffer values;  // term id -> value id + 1, or 0 when the term is not a key
+    private int size;
+
+    public OffHeapLexicon(int expectedTerms) {
+        this.pool = new OffHeapStringPool(expectedTerms);
+        this.values = OffHeapStringPool.allocate(Math.max(16, expectedTerms) * 4).asIntBuffer();
+    }
+
+    public void put(String key, String value) {
+        int keyId = pool.intern(key);
+        int valueId = pool.intern(value);
+        ensureCapacity(Math.max(keyId, valueId) + 1);
+        if (values.get(keyId) == 0) {
+            size++;
+        }
+        values.put(keyId, valueId + 1);
+    }
+
+    // Returns the pool ID of a key, or -1 if it is not a key
+    public int keyId(String key) {
+        return valueId(key) >= 0 ? pool.find(key) : -1;
+    }
+
+    // Decodes the key with the given pool ID
+    public String keyOf(int keyId) {
+        return pool.get(keyId);
+    }
+
+    public boolean containsKey(String key) {
+        return valueId(key) >= 0;
+    }
+
+    public String get(String key) {
+        int valueId = valueId(key);
+        return valueId >= 0 ? pool.get(valueId) : null;
+    }
+
+    public String getOrDefault(String key, String defaultValue) {
+        int valueId = valueId(key);
+        return valueId >= 0 ? pool.get(valueId) : defaultValue;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Decodes all keys, in insertion order
+    public List<String> keys() {
+        List<String> keys = new ArrayList<>(size);
+        int limit = Math.min(pool.size(), values.capacity());
+        for (int id = 0; id < limit; id++) {
+            if (values.get(id) != 0) {
+                keys.add(pool.get(id));
+            }
+        }
+        return keys;
+    }
+
+    public OffHeapStringPool getPool() {
+        return pool;
+    }
+
+    public long offHeapBytes() {
+        return pool.offHeapBytes() + (long) values.capacity() * 4;
+    }
+
+    private int valueId(String key) {
+        int keyId = pool.find(key);
+        if (keyId < 0 || keyId >= values.capacity()) return -1;
+        return values.get(keyId) - 1;
+    }
+
+    private void ensureCapacity(int ids) {
+        if (ids <= values.capacity()) return;
+        IntBuffer grown = OffHeapStringPool.allocate(Math.max(ids, values.capacity() * 2) * 4).asIntBuffer();
+        for (int i = 0; i < values.capacity(); i++) {
+            grown.put(i, values.get(i));
+        }
+        values = grown;
+    }
+}
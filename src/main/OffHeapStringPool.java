@@ -0,0 +1,178 @@
+package main;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Interned string pool stored outside the Java heap.
+// Each distinct string is stored once as UTF-8 in a direct buffer and identified by a dense int ID.
+// The hash table, offsets and hashes are direct buffers too, so a pool of millions of terms is a
+// handful of objects to the GC. Lookups hash and compare the query's chars against the stored bytes
+// without decoding or allocating.
+// Writes must not run concurrently with anything else; once filled, concurrent reads are safe.
+public class OffHeapStringPool {
+    private static final int EMPTY = 0;  // Table slots hold id + 1
+
+    private ByteBuffer data;
+    private IntBuffer offsets;  // id -> start offset in data; offsets[size] is the end of the last entry
+    private IntBuffer hashes;   // id -> hash, kept so the table can grow without decoding
+    private IntBuffer table;    // open addressing, slot -> id + 1
+    private int size;
+
+    public OffHeapStringPool(int expectedTerms) {
+        int capacity = Math.max(16, expectedTerms);
+        data = allocate(capacity * 8);
+        offsets = allocate((capacity + 1) * 4).asIntBuffer();
+        hashes = allocate(capacity * 4).asIntBuffer();
+        table = newTable(Integer.highestOneBit(capacity * 2 - 1) << 1);
+    }
+
+    // Returns the string's ID, adding it if it isn't in the pool yet
+    public int intern(String term) {
+        int hash = hash(term);
+        int slot = findSlot(term, hash);
+        int entry = table.get(slot);
+        if (entry != EMPTY) return entry - 1;
+
+        int id = size;
+        byte[] bytes = term.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(bytes.length);
+        int offset = offsets.get(id);
+        data.position(offset);
+        data.put(bytes);
+        offsets.put(id + 1, offset + bytes.length);
+        hashes.put(id, hash);
+        table.put(slot, id + 1);
+        size++;
+        if (size * 2 > table.capacity()) {
+            rehash();
+        }
+        return id;
+    }
+
+    // Returns the string's ID, or -1 if it isn't in the pool
+    public int find(String term) {
+        int entry = table.get(findSlot(term, hash(term)));
+        return entry - 1;
+    }
+
+    // Decodes a stored string
+    public String get(int id) {
+        int start = offsets.get(id);
+        int length = offsets.get(id + 1) - start;
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = data.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Compares a stored string with `term` by encoding term's chars on the fly
+    public boolean equals(int id, String term) {
+        int position = offsets.get(id);
+        int end = offsets.get(id + 1);
+        for (int i = 0; i < term.length(); i++) {
+            int c = term.charAt(i);
+            if (c < 0x80) {
+                if (position >= end || data.get(position++) != (byte) c) return false;
+                continue;
+            }
+            if (Character.isHighSurrogate((char) c) && i + 1 < term.length()
+                    && Character.isLowSurrogate(term.charAt(i + 1))) {
+                c = Character.toCodePoint((char) c, term.charAt(++i));
+            } else if (Character.isSurrogate((char) c)) {
+                // getBytes() stores an unpaired surrogate as '?'
+                if (position >= end || data.get(position++) != '?') return false;
+                continue;
+            }
+            int length = c < 0x800 ? 2 : c < 0x10000 ? 3 : 4;
+            if (end - position < length) return false;
+            int first = length == 2 ? 0xC0 | (c >> 6)
+                : length == 3 ? 0xE0 | (c >> 12)
+                : 0xF0 | (c >> 18);
+            if (data.get(position++) != (byte) first) return false;
+            for (int shift = (length - 2) * 6; shift >= 0; shift -= 6) {
+                if (data.get(position++) != (byte) (0x80 | ((c >> shift) & 0x3F))) return false;
+            }
+        }
+        return position == end;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Direct memory held by the pool
+    public long offHeapBytes() {
+        return data.capacity() + (long) offsets.capacity() * 4 + (long) hashes.capacity() * 4 + (long) table.capacity() * 4;
+    }
+
+    private int findSlot(String term, int hash) {
+        int mask = table.capacity() - 1;
+        int slot = hash & mask;
+        while (true) {
+            int entry = table.get(slot);
+            if (entry == EMPTY) return slot;
+            int id = entry - 1;
+            if (hashes.get(id) == hash && equals(id, term)) return slot;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static int hash(String term) {
+        int h = term.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private void ensureCapacity(int bytes) {
+        int end = offsets.get(size);
+        if (end + bytes > data.capacity()) {
+            long needed = Math.max((long) data.capacity() * 2, (long) end + bytes);
+            ByteBuffer grown = allocate((int) Math.min(needed, Integer.MAX_VALUE - 8));
+            data.position(0).limit(end);
+            grown.put(data);
+            data.clear();
+            data = grown;
+        }
+        if (size + 1 >= hashes.capacity()) {
+            int capacity = hashes.capacity() * 2;
+            offsets = copy(offsets, capacity + 1, size + 1);
+            hashes = copy(hashes, capacity, size);
+        }
+    }
+
+    private static IntBuffer copy(IntBuffer source, int capacity, int count) {
+        IntBuffer target = allocate(capacity * 4).asIntBuffer();
+        for (int i = 0; i < count; i++) {
+            target.put(i, source.get(i));
+        }
+        return target;
+    }
+
+    private void rehash() {
+        IntBuffer grown = newTable(table.capacity() * 2);
+        int mask = grown.capacity() - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes.get(id) & mask;
+            while (grown.get(slot) != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            grown.put(slot, id + 1);
+        }
+        table = grown;
+    }
+
+    private static IntBuffer newTable(int capacity) {
+        // New buffers start zeroed, i.e. every slot EMPTY
+        return allocate(capacity * 4).asIntBuffer();
+    }
+
+    // Direct memory normally. While native-image is building (and snapshotting the lexicon into the
+    // image heap, which cannot hold direct buffers) plain heap buffers are used instead.
+    static ByteBuffer allocate(int bytes) {
+        if ("buildtime".equals(System.getProperty("org.graalvm.nativeimage.imagecode"))) {
+            return ByteBuffer.allocate(bytes);
+        }
+        return ByteBuffer.allocateDirect(bytes);
+    }
+}
@@ -0,0 +1,435 @@
+package main;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.zip.CRC32;
+
+// Fast PNG writer for opaque images (8-bit RGB, no alpha, no interlacing), with its own deflate.
+// ImageIO's writer filters adaptively and deflates at the default level, costing several times more
+// than drawing a card. A card is mostly flat: ~90% of its pixels repeat the pixel above. So every row
+// uses the Up filter, and runs of pixels equal to the row above (all zero bytes after filtering) are
+// found with Arrays.mismatch and written as distance-1 matches without ever being materialized.
+// Only the remaining bytes (photos, text edges) are coded, as literals in one dynamic Huffman block
+// built from their histogram. No LZ77 search, so text compresses less than with zlib, but the whole
+// encode costs about as much as filling the image with pixels once.
+final class PngEncoder {
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int FILTER_UP = 2;
+    private static final int ADLER_MODULUS = 65521;
+
+    private static final int END_OF_BLOCK = 256;
+    private static final int MAX_MATCH = 258;
+    private static final int MIN_MATCH = 3;
+    private static final int[] LENGTH_BASE = {
+        3, 4, 5, 6, 7, 8, 9, 10, 11, 13, 15, 17, 19, 23, 27, 31, 35, 43, 51, 59, 67, 83, 99, 115, 131, 163, 195, 227, 258};
+    private static final int[] LENGTH_EXTRA = {
+        0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 4, 4, 4, 4, 5, 5, 5, 5, 0};
+    private static final int[] CODE_LENGTH_ORDER = {16, 17, 18, 0, 8, 7, 9, 6, 10, 5, 11, 4, 12, 3, 13, 2, 14, 1, 15};
+    private static final int[] LENGTH_CODE = new int[MAX_MATCH + 1];  // Match length -> index into LENGTH_BASE
+
+    static {
+        for (int code = 0; code < LENGTH_BASE.length; code++) {
+            int end = code + 1 < LENGTH_BASE.length ? LENGTH_BASE[code + 1] : MAX_MATCH + 1;
+            for (int length = LENGTH_BASE[code]; length < end; length++) {
+                LENGTH_CODE[length] = code;
+            }
+        }
+        LENGTH_CODE[MAX_MATCH] = LENGTH_BASE.length - 1;  // 258 has its own code, not 227 + 31
+    }
+
+    private PngEncoder() {
+    }
+
+    static byte[] encode(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        Tokens tokens = tokenize(pixels(image), width, height);
+
+        BitWriter out = new BitWriter(tokens.literalBytes + 64 * 1024);
+        out.writeBytes(SIGNATURE);
+        byte[] header = new byte[13];
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 8;  // Bits per sample
+        header[9] = 2;  // Color type: RGB
+        writeChunk(out, "IHDR", header);
+
+        int idat = out.beginChunk("IDAT");
+        out.writeByte(0x78);  // zlib header: deflate, 32K window, no dictionary
+        out.writeByte(0x01);
+        writeBlock(out, tokens);
+        out.flushBits();
+        out.writeInt((int) tokens.adler());
+        out.endChunk(idat);
+
+        writeChunk(out, "IEND", new byte[0]);
+        return out.toByteArray();
+    }
+
+    // The pixels as 0xRRGGBB ints, row after row: the image's own array when it is a plain TYPE_INT_RGB
+    private static int[] pixels(BufferedImage image) {
+        int width = image.getWidth();
+        if (image.getType() == BufferedImage.TYPE_INT_RGB
+                && image.getRaster().getDataBuffer() instanceof DataBufferInt
+                && image.getSampleModel() instanceof SinglePixelPackedSampleModel
+                && ((SinglePixelPackedSampleModel) image.getSampleModel()).getScanlineStride() == width
+                && image.getRaster().getSampleModelTranslateX() == 0
+                && image.getRaster().getSampleModelTranslateY() == 0) {
+            return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        }
+        return image.getRGB(0, 0, width, image.getHeight(), null, 0, width);
+    }
+
+    // The Up-filtered image as deflate symbols: literal bytes, and matches (distance 1) for zero runs
+    private static Tokens tokenize(int[] pixels, int width, int height) {
+        Tokens tokens = new Tokens(width * height / 4);
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            int above = row - width;
+            tokens.literal(FILTER_UP);
+            int x = 0;
+            while (x < width) {
+                if (y > 0) {
+                    int mismatch = Arrays.mismatch(pixels, row + x, row + width, pixels, above + x, above + width);
+                    int same = mismatch < 0 ? width - x : mismatch;
+                    if (same > 0) {
+                        tokens.zeros(same * 3);
+                        x += same;
+                        continue;
+                    }
+                }
+                // Pixels that differ from the one above, up to the next one that doesn't
+                do {
+                    int pixel = pixels[row + x];
+                    int up = y > 0 ? pixels[above + x] : 0;
+                    tokens.literal(((pixel >> 16) - (up >> 16)) & 0xFF);
+                    tokens.literal(((pixel >> 8) - (up >> 8)) & 0xFF);
+                    tokens.literal((pixel - up) & 0xFF);
+                    x++;
+                } while (x < width && (y == 0 || pixels[row + x] != pixels[above + x]));
+            }
+            tokens.reduceAdler();
+        }
+        tokens.symbols[tokens.count++] = END_OF_BLOCK;
+        tokens.frequencies[END_OF_BLOCK]++;
+        return tokens;
+    }
+
+    private static final class Tokens {
+        int[] symbols;  // Literal byte or end of block (0-256), or -length for a match at distance 1
+        int count;
+        int literalBytes;
+        final int[] frequencies = new int[286];
+        private int last = -1;  // Last byte of the uncompressed stream, -1 at the start
+        private long adlerA = 1, adlerB;
+
+        Tokens(int capacity) {
+            symbols = new int[Math.max(1024, capacity)];
+        }
+
+        void literal(int value) {
+            add(value);
+            frequencies[value]++;
+            literalBytes++;
+            last = value;
+            adlerA += value;
+            adlerB += adlerA;
+        }
+
+        // n zero bytes: a literal zero unless the stream already ends in one, then copies of it
+        void zeros(int n) {
+            // Zeros leave Adler's sum of bytes unchanged and add it n times to the second sum
+            adlerB += adlerA * n;
+            if (last != 0) {
+                add(0);
+                frequencies[0]++;
+                literalBytes++;
+                last = 0;
+                n--;
+            }
+            while (n >= MIN_MATCH) {
+                // Never leave a remainder shorter than a match
+                int length = n > MAX_MATCH && n - MAX_MATCH < MIN_MATCH ? n - MIN_MATCH : Math.min(n, MAX_MATCH);
+                add(-length);
+                frequencies[257 + LENGTH_CODE[length]]++;
+                n -= length;
+            }
+            for (; n > 0; n--) {
+                add(0);
+                frequencies[0]++;
+                literalBytes++;
+            }
+        }
+
+        // The sums are longs, so reducing them once per row is enough for any realistic row length
+        void reduceAdler() {
+            adlerA %= ADLER_MODULUS;
+            adlerB %= ADLER_MODULUS;
+        }
+
+        long adler() {
+            return (adlerB % ADLER_MODULUS) << 16 | (adlerA % ADLER_MODULUS);
+        }
+
+        private void add(int symbol) {
+            if (count + 1 >= symbols.length) {
+                symbols = Arrays.copyOf(symbols, symbols.length * 2);
+            }
+            symbols[count++] = symbol;
+        }
+    }
+
+    // One final block with dynamic Huffman codes (RFC 1951, 3.2.7)
+    private static void writeBlock(BitWriter out, Tokens tokens) {
+        int[] literalLengths = codeLengths(tokens.frequencies, 15);
+        // Every match is at distance 1 (code 0); a second code keeps the distance code complete
+        int[] distanceLengths = {1, 1};
+        int literalCount = 286;
+        while (literalCount > 257 && literalLengths[literalCount - 1] == 0) literalCount--;
+
+        // Both code length lists are sent as one run-length coded sequence
+        int[] lengths = new int[literalCount + distanceLengths.length];
+        System.arraycopy(literalLengths, 0, lengths, 0, literalCount);
+        System.arraycopy(distanceLengths, 0, lengths, literalCount, distanceLengths.length);
+        int[] runs = new int[lengths.length * 2];  // Code length symbol, then its extra bits value
+        int runCount = 0;
+        int[] runFrequencies = new int[19];
+        for (int i = 0; i < lengths.length; ) {
+            int length = lengths[i];
+            int repeat = 1;
+            while (i + repeat < lengths.length && lengths[i + repeat] == length) repeat++;
+            i += repeat;
+            if (length == 0) {
+                while (repeat >= 11) {
+                    int n = Math.min(repeat, 138);
+                    runs[runCount++] = 18;
+                    runs[runCount++] = n - 11;
+                    repeat -= n;
+                }
+                if (repeat >= 3) {
+                    runs[runCount++] = 17;
+                    runs[runCount++] = repeat - 3;
+                    repeat = 0;
+                }
+            } else {
+                runs[runCount++] = length;
+                runs[runCount++] = 0;
+                repeat--;
+                while (repeat >= 3) {
+                    int n = Math.min(repeat, 6);
+                    runs[runCount++] = 16;
+                    runs[runCount++] = n - 3;
+                    repeat -= n;
+                }
+            }
+            for (; repeat > 0; repeat--) {
+                runs[runCount++] = length;
+                runs[runCount++] = 0;
+            }
+        }
+        for (int i = 0; i < runCount; i += 2) {
+            runFrequencies[runs[i]]++;
+        }
+        int[] runLengths = codeLengths(runFrequencies, 7);
+        int[] runCodes = canonicalCodes(runLengths);
+        int runCodeCount = 19;
+        while (runCodeCount > 4 && runLengths[CODE_LENGTH_ORDER[runCodeCount - 1]] == 0) runCodeCount--;
+
+        out.writeBits(1, 1);  // Final block
+        out.writeBits(2, 2);  // Dynamic Huffman codes
+        out.writeBits(literalCount - 257, 5);
+        out.writeBits(distanceLengths.length - 1, 5);
+        out.writeBits(runCodeCount - 4, 4);
+        for (int i = 0; i < runCodeCount; i++) {
+            out.writeBits(runLengths[CODE_LENGTH_ORDER[i]], 3);
+        }
+        for (int i = 0; i < runCount; i += 2) {
+            int symbol = runs[i];
+            out.writeBits(runCodes[symbol], runLengths[symbol]);
+            if (symbol == 16) out.writeBits(runs[i + 1], 2);
+            else if (symbol == 17) out.writeBits(runs[i + 1], 3);
+            else if (symbol == 18) out.writeBits(runs[i + 1], 7);
+        }
+
+        int[] literalCodes = canonicalCodes(literalLengths);
+        int[] distanceCodes = canonicalCodes(distanceLengths);
+        int[] symbols = tokens.symbols;
+        for (int i = 0; i < tokens.count; i++) {
+            int symbol = symbols[i];
+            if (symbol >= 0) {
+                out.writeBits(literalCodes[symbol], literalLengths[symbol]);
+            } else {
+                int length = -symbol;
+                int code = LENGTH_CODE[length];
+                out.writeBits(literalCodes[257 + code], literalLengths[257 + code]);
+                out.writeBits(length - LENGTH_BASE[code], LENGTH_EXTRA[code]);
+                out.writeBits(distanceCodes[0], distanceLengths[0]);
+            }
+        }
+    }
+
+    // Huffman code lengths no longer than limit; frequencies are flattened until the tree fits
+    static int[] codeLengths(int[] frequencies, int limit) {
+        int n = frequencies.length;
+        int[] weights = frequencies.clone();
+        while (true) {
+            int[] lengths = new int[n];
+            int[] parent = new int[2 * n];
+            PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+            for (int i = 0; i < n; i++) {
+                if (weights[i] > 0) queue.add(new long[] {weights[i], i});
+            }
+            if (queue.size() <= 1) {
+                // zlib rejects incomplete codes, so a lone symbol gets a partner
+                int lone = queue.isEmpty() ? 0 : (int) queue.peek()[1];
+                lengths[lone] = 1;
+                lengths[lone == 0 ? 1 : 0] = 1;
+                return lengths;
+            }
+            int next = n;
+            while (queue.size() > 1) {
+                long[] a = queue.poll();
+                long[] b = queue.poll();
+                parent[(int) a[1]] = next;
+                parent[(int) b[1]] = next;
+                queue.add(new long[] {a[0] + b[0], next++});
+            }
+            int root = next - 1;
+            int[] depth = new int[2 * n];
+            int longest = 0;
+            // Internal nodes are numbered after their children, so walking down from the root works
+            for (int node = root - 1; node >= n; node--) {
+                depth[node] = depth[parent[node]] + 1;
+            }
+            for (int i = 0; i < n; i++) {
+                if (weights[i] > 0) {
+                    lengths[i] = depth[parent[i]] + 1;
+                    longest = Math.max(longest, lengths[i]);
+                }
+            }
+            if (longest <= limit) return lengths;
+            for (int i = 0; i < n; i++) {
+                if (weights[i] > 0) weights[i] = (weights[i] >> 1) | 1;
+            }
+        }
+    }
+
+    // Canonical codes for the lengths, bit-reversed because deflate sends Huffman codes high bit first
+    private static int[] canonicalCodes(int[] lengths) {
+        int[] counts = new int[16];
+        for (int length : lengths) counts[length]++;
+        counts[0] = 0;
+        int[] next = new int[16];
+        int code = 0;
+        for (int bits = 1; bits < 16; bits++) {
+            code = (code + counts[bits - 1]) << 1;
+            next[bits] = code;
+        }
+        int[] codes = new int[lengths.length];
+        for (int i = 0; i < lengths.length; i++) {
+            int length = lengths[i];
+            if (length > 0) {
+                codes[i] = Integer.reverse(next[length]++) >>> (32 - length);
+            }
+        }
+        return codes;
+    }
+
+    private static void writeChunk(BitWriter out, String type, byte[] data) {
+        int start = out.beginChunk(type);
+        out.writeBytes(data);
+        out.endChunk(start);
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    // Growable byte buffer with a deflate (least significant bit first) bit writer
+    private static final class BitWriter {
+        private byte[] bytes;
+        private int size;
+        private long bits;
+        private int bitCount;
+
+        BitWriter(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void writeBits(int value, int count) {
+            bits |= (long) value << bitCount;
+            bitCount += count;
+            if (bitCount >= 32) {
+                ensure(4);
+                bytes[size++] = (byte) bits;
+                bytes[size++] = (byte) (bits >>> 8);
+                bytes[size++] = (byte) (bits >>> 16);
+                bytes[size++] = (byte) (bits >>> 24);
+                bits >>>= 32;
+                bitCount -= 32;
+            }
+        }
+
+        // Pads the last partial byte with zero bits
+        void flushBits() {
+            ensure(8);
+            while (bitCount > 0) {
+                bytes[size++] = (byte) bits;
+                bits >>>= 8;
+                bitCount -= 8;
+            }
+            bits = 0;
+            bitCount = 0;
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+        }
+
+        void writeBytes(byte[] data) {
+            ensure(data.length);
+            System.arraycopy(data, 0, bytes, size, data.length);
+            size += data.length;
+        }
+
+        void writeInt(int value) {
+            ensure(4);
+            putInt(bytes, size, value);
+            size += 4;
+        }
+
+        // Writes a placeholder length and the type; returns where the chunk starts
+        int beginChunk(String type) {
+            int start = size;
+            writeInt(0);
+            writeBytes(type.getBytes(StandardCharsets.US_ASCII));
+            return start;
+        }
+
+        // Fills in the length and appends the CRC of type and data
+        void endChunk(int start) {
+            putInt(bytes, start, size - start - 8);
+            CRC32 crc = new CRC32();
+            crc.update(bytes, start + 4, size - start - 4);
+            writeInt((int) crc.getValue());
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(size + extra, bytes.length * 2));
+            }
+        }
+    }
+}
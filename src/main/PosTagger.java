@@ -0,0 +1,351 @@
+package main;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+// First-order hidden Markov model part-of-speech tagger with a Viterbi decoder.
+// The model (log start, transition and emission probabilities) is trained offline from a
+// word/TAG corpus into a binary file, which is memory-mapped read-only; the float tables are read
+// in place and the vocabulary lives in an off-heap string pool. Words the corpus never saw are
+// scored by suffix class ("-ly", "-ing", ...) learned from the corpus' rare words.
+// Tagging allocates nothing once a thread's scratch arrays are big enough, and a sentence takes
+// a few microseconds. Immutable once loaded, so one instance serves all threads.
+//
+// Train: java main.PosTagger -train res/pos-corpus.txt res/pos.model
+// Try:   java main.PosTagger "the boy quickly eats apples"
+public class PosTagger {
+    private static final int MAGIC = 0x504F5331;  // "POS1"
+    private static final float SMOOTHING = 0.1f;  // Add-k smoothing for transitions and suffix classes
+    private static final float UNSEEN = -20f;     // Log probability of a known word under a tag it never had
+    private static final int MAX_WORD_BYTES = Short.MAX_VALUE;
+    private static final String[] SUFFIXES = {
+        "ly", "ing", "ed", "tion", "ness", "ment", "ous", "ful", "less", "able", "ive", "est", "er", "al", "ies", "s"
+    };
+    private static final int NUMBER_CLASS = SUFFIXES.length;  // Tokens containing a digit
+    private static final int OTHER_CLASS = SUFFIXES.length + 1;
+    private static final int CLASS_COUNT = SUFFIXES.length + 2;
+
+    private final String[] tags;
+    private final OffHeapStringPool words;  // word -> row of the emission table
+    private final FloatBuffer start;        // [tag]
+    private final FloatBuffer transitions;  // [from * tagCount + to]
+    private final FloatBuffer emissions;    // [word * tagCount + tag]
+    private final FloatBuffer unknown;      // [suffix class * tagCount + tag]
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private PosTagger(ByteBuffer model) throws IOException {
+        if (model.getInt() != MAGIC) {
+            throw new IOException("Not a part-of-speech model");
+        }
+        int tagCount = model.getInt();
+        int wordCount = model.getInt();
+        int classCount = model.getInt();
+        if (classCount != CLASS_COUNT) {
+            throw new IOException("Model was trained with different suffix classes; retrain it");
+        }
+        tags = new String[tagCount];
+        for (int i = 0; i < tagCount; i++) {
+            tags[i] = readString(model);
+        }
+        words = new OffHeapStringPool(wordCount);
+        for (int i = 0; i < wordCount; i++) {
+            words.intern(readString(model));
+        }
+        model.position((model.position() + 3) & ~3);  // Tables are 4-byte aligned
+        start = slice(model, tagCount);
+        transitions = slice(model, tagCount * tagCount);
+        emissions = slice(model, wordCount * tagCount);
+        unknown = slice(model, classCount * tagCount);
+    }
+
+    // Maps a model file read-only
+    public static PosTagger load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new PosTagger(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // Maps the model when it is a plain file, otherwise (e.g. inside a jar) copies it into direct memory
+    public static PosTagger load(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return load(Paths.get(url.toURI()));
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+        try (InputStream in = url.openStream()) {
+            byte[] bytes = in.readAllBytes();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+            buffer.put(bytes).flip();
+            return new PosTagger(buffer);
+        }
+    }
+
+    public int tagCount() {
+        return tags.length;
+    }
+
+    public String tagName(int tag) {
+        return tags[tag];
+    }
+
+    // Returns the tag's index, or -1 if the model doesn't use it
+    public int tagId(String name) {
+        for (int i = 0; i < tags.length; i++) {
+            if (tags[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    // Writes the most likely tag of each word into result. Words must be lowercase without punctuation.
+    public void tag(List<String> sentence, int[] result) {
+        int n = sentence.size();
+        if (n == 0) return;
+        int t = tags.length;
+        Scratch s = scratch.get();
+        s.ensure(n, t);
+        float[] score = s.score;
+        int[] back = s.back;
+
+        int[] lexical = s.lexical;
+        for (int i = 0; i < n; i++) {
+            lexical[i] = lexicalClass(sentence.get(i));
+        }
+
+        for (int j = 0; j < t; j++) {
+            score[j] = start.get(j) + emission(lexical[0], j);
+        }
+        for (int i = 1; i < n; i++) {
+            int word = lexical[i];
+            int row = i * t;
+            int previous = row - t;
+            for (int j = 0; j < t; j++) {
+                float best = Float.NEGATIVE_INFINITY;
+                int bestFrom = 0;
+                for (int k = 0; k < t; k++) {
+                    float candidate = score[previous + k] + transitions.get(k * t + j);
+                    if (candidate > best) {
+                        best = candidate;
+                        bestFrom = k;
+                    }
+                }
+                score[row + j] = best + emission(word, j);
+                back[row + j] = bestFrom;
+            }
+        }
+
+        int last = (n - 1) * t;
+        int bestTag = 0;
+        for (int j = 1; j < t; j++) {
+            if (score[last + j] > score[last + bestTag]) bestTag = j;
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            result[i] = bestTag;
+            bestTag = back[i * t + bestTag];
+        }
+    }
+
+    // Known words map to their vocabulary ID, unknown ones to -(suffix class + 1)
+    private int lexicalClass(String word) {
+        int id = words.find(word);
+        return id >= 0 ? id : -(suffixClass(word) + 1);
+    }
+
+    private float emission(int lexical, int tag) {
+        if (lexical >= 0) {
+            return emissions.get(lexical * tags.length + tag);
+        }
+        return unknown.get((-lexical - 1) * tags.length + tag);
+    }
+
+    static int suffixClass(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.isDigit(word.charAt(i))) return NUMBER_CLASS;
+        }
+        for (int i = 0; i < SUFFIXES.length; i++) {
+            // Require a stem, so "is" and "red" don't count as suffixed
+            if (word.length() > SUFFIXES[i].length() + 2 && word.endsWith(SUFFIXES[i])) return i;
+        }
+        return OTHER_CLASS;
+    }
+
+    // Viterbi lattice, grown as needed and reused by the thread
+    private static final class Scratch {
+        float[] score = new float[0];
+        int[] back = new int[0];
+        int[] lexical = new int[0];
+
+        void ensure(int words, int tags) {
+            if (lexical.length < words) {
+                lexical = new int[Math.max(words, lexical.length * 2)];
+            }
+            int cells = words * tags;
+            if (score.length < cells) {
+                score = new float[Math.max(cells, score.length * 2)];
+                back = new int[score.length];
+            }
+        }
+    }
+
+    // Counts tag starts, tag bigrams and word/tag pairs in a corpus of word/TAG lines and writes the model.
+    // Unknown-word emissions are estimated from the words seen only once, grouped by suffix class.
+    public static void train(Path corpus, Path model) throws IOException {
+        Map<String, Integer> tagIds = new LinkedHashMap<>();
+        Map<String, Integer> wordIds = new LinkedHashMap<>();
+        List<int[]> sentences = new ArrayList<>();  // Alternating word id, tag id
+        try (BufferedReader reader = Files.newBufferedReader(corpus, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] tokens = line.split("\\s+");
+                int[] pairs = new int[tokens.length * 2];
+                for (int i = 0; i < tokens.length; i++) {
+                    int slash = tokens[i].lastIndexOf('/');
+                    if (slash <= 0 || slash == tokens[i].length() - 1) {
+                        throw new IOException("Expected word/TAG but found \"" + tokens[i] + "\"");
+                    }
+                    String word = tokens[i].substring(0, slash).toLowerCase();
+                    String tag = tokens[i].substring(slash + 1);
+                    pairs[2 * i] = wordIds.computeIfAbsent(word, k -> wordIds.size());
+                    pairs[2 * i + 1] = tagIds.computeIfAbsent(tag, k -> tagIds.size());
+                }
+                sentences.add(pairs);
+            }
+        }
+
+        int t = tagIds.size();
+        int w = wordIds.size();
+        float[] startCounts = new float[t];
+        float[] transitionCounts = new float[t * t];
+        float[] tagCounts = new float[t];
+        float[] emissionCounts = new float[w * t];
+        int[] wordCounts = new int[w];
+        for (int[] pairs : sentences) {
+            startCounts[pairs[1]]++;
+            for (int i = 0; i < pairs.length; i += 2) {
+                tagCounts[pairs[i + 1]]++;
+                emissionCounts[pairs[i] * t + pairs[i + 1]]++;
+                wordCounts[pairs[i]]++;
+                if (i > 0) transitionCounts[pairs[i - 1] * t + pairs[i + 1]]++;
+            }
+        }
+
+        String[] wordList = wordIds.keySet().toArray(new String[0]);
+        float[] classCounts = new float[CLASS_COUNT * t];
+        float[] rareCounts = new float[t];
+        for (int word = 0; word < w; word++) {
+            if (wordCounts[word] != 1) continue;
+            int suffixClass = suffixClass(wordList[word]);
+            for (int tag = 0; tag < t; tag++) {
+                classCounts[suffixClass * t + tag] += emissionCounts[word * t + tag];
+                rareCounts[tag] += emissionCounts[word * t + tag];
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(model)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(t);
+            out.writeInt(w);
+            out.writeInt(CLASS_COUNT);
+            for (String tag : tagIds.keySet()) {
+                writeString(out, tag);
+            }
+            for (String word : wordList) {
+                writeString(out, word);
+            }
+            while (out.size() % 4 != 0) {
+                out.writeByte(0);
+            }
+            float sentenceCount = sentences.size();
+            for (int tag = 0; tag < t; tag++) {
+                out.writeFloat(log((startCounts[tag] + SMOOTHING) / (sentenceCount + SMOOTHING * t)));
+            }
+            for (int from = 0; from < t; from++) {
+                float total = 0;
+                for (int to = 0; to < t; to++) total += transitionCounts[from * t + to];
+                for (int to = 0; to < t; to++) {
+                    out.writeFloat(log((transitionCounts[from * t + to] + SMOOTHING) / (total + SMOOTHING * t)));
+                }
+            }
+            for (int word = 0; word < w; word++) {
+                for (int tag = 0; tag < t; tag++) {
+                    float count = emissionCounts[word * t + tag];
+                    out.writeFloat(count == 0 ? UNSEEN : log(count / tagCounts[tag]));
+                }
+            }
+            // P(unknown word of this class | tag) ~ P(rare word | tag) * P(class | rare word, tag)
+            for (int suffixClass = 0; suffixClass < CLASS_COUNT; suffixClass++) {
+                for (int tag = 0; tag < t; tag++) {
+                    float rare = (rareCounts[tag] + SMOOTHING) / (tagCounts[tag] + SMOOTHING);
+                    float given = (classCounts[suffixClass * t + tag] + SMOOTHING) / (rareCounts[tag] + SMOOTHING * CLASS_COUNT);
+                    out.writeFloat(log(rare * given));
+                }
+            }
+        }
+        System.out.println("Trained " + t + " tags and " + w + " words from " + sentences.size() + " sentences");
+    }
+
+    private static float log(float p) {
+        return (float) Math.log(p);
+    }
+
+    private static FloatBuffer slice(ByteBuffer model, int floats) {
+        ByteBuffer view = model.slice();
+        view.limit(floats * 4);
+        model.position(model.position() + floats * 4);
+        return view.asFloatBuffer();
+    }
+
+    private static String readString(ByteBuffer model) {
+        byte[] bytes = new byte[model.getShort() & 0xFFFF];
+        model.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_WORD_BYTES) {
+            throw new IOException("Token too long: " + value.substring(0, 40) + "...");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 3 && args[0].equals("-train")) {
+            train(Paths.get(args[1]), Paths.get(args[2]));
+            return;
+        }
+        if (args.length != 1) {
+            System.err.println("Usage: java main.PosTagger -train <corpus.txt> <out.model>");
+            System.err.println("       java main.PosTagger \"<sentence>\"");
+            System.exit(1);
+        }
+        URL url = Resources.get("pos.model");
+        if (url == null) {
+            System.err.println("No pos.model found; train one first.");
+            System.exit(1);
+        }
+        PosTagger tagger = load(url);
+        List<String> sentence = new ArrayList<>();
+        for (String token : args[0].toLowerCase().trim().split("\\s+")) {
+            sentence.add(ExpertSystem.stripTerminators(token));
+        }
+        int[] result = new int[sentence.size()];
+        tagger.tag(sentence, result);
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < result.length; i++) {
+            line.append(sentence.get(i)).append('/').append(tagger.tagName(result[i])).append(' ');
+        }
+        System.out.println(line.toString().trim());
+    }
+}
@@ -0,0 +1,80 @@
+package main;
+
+import java.io.*;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Loads game assets (images, sounds, keywords.txt) through the classpath, so the game runs from
+// a single jar regardless of the working directory. "res" is a source folder (see .classpath),
+// so res/images/cat.jpg is the resource "images/cat.jpg".
+// Directory contents come from the generated assets.idx (see AssetIndexer) instead of a scan.
+// When res is not on the classpath (e.g. plain javac runs), res/<path> on disk is used instead.
+public final class Resources {
+    static final String INDEX_NAME = "assets.idx";
+    private static final String FALLBACK_DIR = "res";
+
+    private static List<String> index;
+
+    private Resources() {
+    }
+
+    // Returns the URL of a resource, or null if it doesn't exist
+    public static URL get(String path) {
+        URL url = Resources.class.getClassLoader().getResource(path);
+        if (url != null) return url;
+        File file = new File(FALLBACK_DIR, path);
+        if (file.isFile()) {
+            try {
+                return file.toURI().toURL();
+            } catch (MalformedURLException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    public static InputStream open(String path) throws IOException {
+        URL url = get(path);
+        if (url == null) {
+            throw new FileNotFoundException("Resource not found: " + path);
+        }
+        return url.openStream();
+    }
+
+    public static BufferedReader openReader(String path) throws IOException {
+        return new BufferedReader(new InputStreamReader(open(path), StandardCharsets.UTF_8));
+    }
+
+    // Lists indexed resources under a directory prefix, e.g. list("images/")
+    public static List<String> list(String directory) {
+        List<String> result = new ArrayList<>();
+        for (String path : index()) {
+            if (path.startsWith(directory)) {
+                result.add(path);
+            }
+        }
+        return result;
+    }
+
+    private static synchronized List<String> index() {
+        if (index == null) {
+            List<String> paths = new ArrayList<>();
+            try (BufferedReader reader = openReader(INDEX_NAME)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isEmpty()) {
+                        paths.add(line);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error loading asset index: " + e.getMessage());
+            }
+            index = Collections.unmodifiableList(paths);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,86 @@
+package main;
+
+import javax.swing.ButtonModel;
+import javax.swing.JComponent;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+// Caches the rendered look of a custom-painted component for each state and theme.
+// Each (state, light/dark) skin is painted once into a compatible image and blitted afterwards;
+// the cache is dropped only when the component's size, text or display scale changes.
+public class SkinCache {
+    public static final int NORMAL = 0;
+    public static final int HOVER = 1;
+    public static final int PRESSED = 2;
+
+    // Paints one skin; called only when the cached image is missing
+    public interface Painter {
+        void paint(Graphics2D g2d, int state, boolean darkMode, int width, int height);
+    }
+
+    private final Painter painter;
+    private final BufferedImage[] skins = new BufferedImage[6];  // 3 states x light/dark
+    private int width, height;
+    private double scale = 1;
+    private String text;
+
+    public SkinCache(Painter painter) {
+        this.painter = painter;
+    }
+
+    // Maps a button model to a skin state
+    public static int stateOf(ButtonModel model) {
+        return model.isPressed() ? PRESSED : model.isRollover() ? HOVER : NORMAL;
+    }
+
+    public void paint(Graphics g, JComponent component, String text, int state, boolean darkMode) {
+        int w = component.getWidth();
+        int h = component.getHeight();
+        if (w <= 0 || h <= 0) return;
+
+        Graphics2D g2d = (Graphics2D) g;
+        AffineTransform transform = g2d.getTransform();
+        double currentScale = Math.max(transform.getScaleX(), transform.getScaleY());
+        if (w != width || h != height || currentScale != scale || !text.equals(this.text)) {
+            invalidate();
+            width = w;
+            height = h;
+            scale = currentScale;
+            this.text = text;
+        }
+
+        int index = state * 2 + (darkMode ? 1 : 0);
+        BufferedImage skin = skins[index];
+        if (skin == null) {
+            skin = render(component, state, darkMode, w, h);
+            skins[index] = skin;
+        }
+        g2d.drawImage(skin, 0, 0, w, h, null);
+    }
+
+    public void invalidate() {
+        for (int i = 0; i < skins.length; i++) {
+            if (skins[i] != null) {
+                skins[i].flush();
+                skins[i] = null;
+            }
+        }
+    }
+
+    private BufferedImage render(JComponent component, int state, boolean darkMode, int w, int h) {
+        GraphicsConfiguration gc = component.getGraphicsConfiguration();
+        // Render at device resolution so HiDPI screens don't get a blurry upscaled skin
+        int imageWidth = (int) Math.ceil(w * scale);
+        int imageHeight = (int) Math.ceil(h * scale);
+        BufferedImage image = gc != null
+            ? gc.createCompatibleImage(imageWidth, imageHeight, Transparency.TRANSLUCENT)
+            : new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.scale(scale, scale);
+        g2d.setFont(component.getFont());
+        painter.paint(g2d, state, darkMode, w, h);
+        g2d.dispose();
+        return image;
+    }
+}
@@ -1,62 +1,131 @@
 package main;
 
 import javax.sound.sampled.*;
-import java.io.File;
 import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
 
+// Game audio. The sounds are IMA ADPCM WAVs (see ImaAdpcm). Effects are decoded once into Clips so
+// they start instantly; the music tracks are long, so they stream: a MusicStream decodes a chunk at
+// a time into a SourceDataLine and only the line's buffer is ever held as PCM.
 public class SoundManager {
-    private Clip backgroundMusic;
+    private enum Music { NONE, MENU, GAME }
+
+    private MusicStream backgroundMusic;
     private Clip correctSound;
     private Clip incorrectSound;
     private Clip neutralSound;
-    private Clip gameBackgroundMusic;
+    private MusicStream gameBackgroundMusic;
+    private final CompletableFuture<Void> loaded;
+    private volatile boolean closed;
+    private Music music = Music.NONE;  // The latest music request; guarded by this
 
+    // Clips are decoded in the background so windows don't wait for audio. Music requests only record
+    // which track is wanted; once loading finishes the latest one is applied, so a stop requested
+    // before the music is ready can't be overtaken by an earlier play
     public SoundManager() {
-        try {
-            // Load background music
-            AudioInputStream backgroundStream = AudioSystem.getAudioInputStream(new File("res/sounds/backgroundV1.wav"));
-            backgroundMusic = AudioSystem.getClip();
-            backgroundMusic.open(backgroundStream);
-            
-            // Load background music
-            AudioInputStream gameBackgroundStream = AudioSystem.getAudioInputStream(new File("res/sounds/relaxing-piano.wav"));
-            gameBackgroundMusic = AudioSystem.getClip();
-            gameBackgroundMusic.open(gameBackgroundStream);
-
-            // Load sound effects
-            AudioInputStream correctStream = AudioSystem.getAudioInputStream(new File("res/sounds/correct.wav"));
-            correctSound = AudioSystem.getClip();
-            correctSound.open(correctStream);
-
-            AudioInputStream incorrectStream = AudioSystem.getAudioInputStream(new File("res/sounds/incorrect.wav"));
-            incorrectSound = AudioSystem.getClip();
-            incorrectSound.open(incorrectStream);
-
-            AudioInputStream neutralStream = AudioSystem.getAudioInputStream(new File("res/sounds/sound1.wav"));
-            neutralSound = AudioSystem.getClip();
-            neutralSound.open(neutralStream);
-            
-        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
+        loaded = Startup.runInBackground("audio", this::loadClips);
+        loaded.whenComplete((result, failure) -> applyMusic());
+    }
+
+    private void loadClips() {
+        // Load background music
+        backgroundMusic = MusicStream.open("sounds/school-glock.wav");
+        gameBackgroundMusic = MusicStream.open("sounds/relaxing-piano.wav");
+
+        // Load sound effects
+        correctSound = loadClip("sounds/correct.wav");
+        incorrectSound = loadClip("sounds/incorrect.wav");
+        neutralSound = loadClip("sounds/sound1.wav");
+    }
+
+    // Opens a clip from a classpath resource; a missing or unreadable sound just stays silent
+    private static Clip loadClip(String path) {
+        if (!FlightEvents.recording()) {
+            return openClip(path);
+        }
+        FlightEvents.SoundLoadEvent event = new FlightEvents.SoundLoadEvent();
+        event.begin();
+        Clip clip = openClip(path);
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.loaded = clip != null;
+            if (clip != null) {
+                event.frames = clip.getFrameLength();
+                event.bytes = clip.getFrameLength() * (long) clip.getFormat().getFrameSize();
+            }
+            event.commit();
+        }
+        return clip;
+    }
+
+    private static Clip openClip(String path) {
+        URL url = Resources.get(path);
+        if (url == null) {
+            System.err.println("Sound not found: " + path);
+            return null;
+        }
+        try (AudioInputStream stream = ImaAdpcm.getAudioInputStream(url)) {
+            Clip clip = AudioSystem.getClip();
+            clip.open(stream);
+            return clip;
+        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException | IllegalArgumentException e) {
+            // IllegalArgumentException: no mixer can play clips (no audio device)
             e.printStackTrace();
+            return null;
         }
     }
 
+    // Stops and closes every clip, giving its audio line back to the mixer; clips still loading are
+    // closed as soon as they finish. Play requests after this are ignored
+    public void close() {
+        closed = true;
+        loaded.thenRun(() -> {
+            for (MusicStream music : new MusicStream[] {backgroundMusic, gameBackgroundMusic}) {
+                if (music != null) {
+                    music.close();
+                }
+            }
+            for (Clip clip : new Clip[] {correctSound, incorrectSound, neutralSound}) {
+                if (clip != null) {
+                    clip.stop();
+                    clip.close();
+                }
+            }
+        });
+    }
+
     public void playBackgroundMusic() {
-        if (backgroundMusic != null) {
-            backgroundMusic.loop(Clip.LOOP_CONTINUOUSLY);
-        }
+        requestMusic(Music.MENU);
     }
     
     public void playGameBackgroundMusic() {
-    	if(gameBackgroundMusic != null) {
-    		gameBackgroundMusic.loop(Clip.LOOP_CONTINUOUSLY);
-    	}
+        requestMusic(Music.GAME);
     }
 
     public void stopBackgroundMusic() {
-        if (backgroundMusic != null || gameBackgroundMusic != null) {
-            backgroundMusic.stop();
-            gameBackgroundMusic.stop();
+        requestMusic(Music.NONE);
+    }
+
+    private synchronized void requestMusic(Music wanted) {
+        music = wanted;
+        if (loaded.isDone()) {
+            applyMusic();
+        }
+    }
+
+    // Plays the wanted track and stops the other; running it again for the same request changes nothing
+    private synchronized void applyMusic() {
+        if (closed) return;
+        MusicStream wanted = music == Music.MENU ? backgroundMusic : music == Music.GAME ? gameBackgroundMusic : null;
+        // Tracks load independently, so either one may be missing
+        for (MusicStream track : new MusicStream[] {backgroundMusic, gameBackgroundMusic}) {
+            if (track != null && track != wanted) {
+                track.stop();
+            }
+        }
+        if (wanted != null) {
+            wanted.loop();
         }
     }
 
@@ -72,8 +141,9 @@ public class SoundManager {
         playSound(neutralSound);
     }
 
+    // Effects requested while clips are still loading are skipped rather than played late
     private void playSound(Clip clip) {
-        if (clip != null) {
+        if (loaded.isDone() && clip != null && !closed) {
             clip.setFramePosition(0);
             clip.start();
         }
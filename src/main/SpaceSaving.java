@@ -0,0 +1,102 @@
+package main;
+
+import java.util.*;
+
+// Space-Saving heavy-hitters summary: tracks at most `capacity` items no matter how many distinct
+// items are offered. Counts are upper bounds; each entry's error is at most the count it inherited
+// from the item it evicted. Entries live in an indexed min-heap so offers cost O(log capacity).
+public class SpaceSaving {
+    private final int capacity;
+    private final String[] items;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<String, Integer> positions;
+    private int size;
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.items = new String[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    public void offer(String item) {
+        offer(item, 1, 0);
+    }
+
+    public void offer(String item, long count, long error) {
+        Integer position = positions.get(item);
+        if (position != null) {
+            counts[position] += count;
+            errors[position] += error;
+            siftDown(position);
+        } else if (size < capacity) {
+            items[size] = item;
+            counts[size] = count;
+            errors[size] = error;
+            positions.put(item, size);
+            siftUp(size++);
+        } else {
+            // Replace the current minimum; its count becomes the newcomer's error bound
+            positions.remove(items[0]);
+            long min = counts[0];
+            items[0] = item;
+            counts[0] = min + count;
+            errors[0] = min + error;
+            positions.put(item, 0);
+            siftDown(0);
+        }
+    }
+
+    // Folds another summary into this one (counts of shared items add up)
+    public void merge(SpaceSaving other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.items[i], other.counts[i], other.errors[i]);
+        }
+    }
+
+    // Returns up to k items ordered by descending estimated count
+    public List<Map.Entry<String, Long>> top(int k) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new AbstractMap.SimpleImmutableEntry<>(items[i], counts[i]));
+        }
+        entries.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        return entries.subList(0, Math.min(k, entries.size()));
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (counts[parent] <= counts[i]) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) break;
+            int smallest = left + 1 < size && counts[left + 1] < counts[left] ? left + 1 : left;
+            if (counts[i] <= counts[smallest]) break;
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+        long count = counts[a];
+        counts[a] = counts[b];
+        counts[b] = count;
+        long error = errors[a];
+        errors[a] = errors[b];
+        errors[b] = error;
+        positions.put(items[a], a);
+        positions.put(items[b], b);
+    }
+}
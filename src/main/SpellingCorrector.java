@@ -0,0 +1,119 @@
+package main;
+
+import java.util.*;
+
+// Typo-tolerant lookup over a fixed lexicon using a precomputed SymSpell deletion index.
+// Every term is indexed under all strings reachable by deleting up to maxDistance characters;
+// a query generates its own deletes and only the terms sharing one of them are verified with a
+// bounded edit distance. A lookup costs a few hash probes rather than a scan of the lexicon.
+// Immutable once built, so it is safe to share between threads.
+public class SpellingCorrector {
+    private static final int LONG_WORD = 7;  // Letters from which a word may be two edits off
+
+    private final int maxDistance;
+    private final int maxCandidates;
+    private final List<String> terms = new ArrayList<>();
+    private final Map<String, int[]> deletes = new HashMap<>();
+
+    // maxDistance: largest edit distance corrected (1 or 2 in practice)
+    // maxCandidates: cap on candidates verified per lookup, bounding the worst case
+    public SpellingCorrector(Iterable<String> lexicon, int maxDistance, int maxCandidates) {
+        this.maxDistance = maxDistance;
+        this.maxCandidates = maxCandidates;
+        Map<String, List<Integer>> index = new HashMap<>();
+        Set<String> variants = new HashSet<>();
+        for (String term : lexicon) {
+            int id = terms.size();
+            terms.add(term);
+            variants.clear();
+            collectDeletes(term, maxDistance, variants);
+            for (String variant : variants) {
+                index.computeIfAbsent(variant, k -> new ArrayList<>(2)).add(id);
+            }
+        }
+        for (Map.Entry<String, List<Integer>> entry : index.entrySet()) {
+            List<Integer> ids = entry.getValue();
+            int[] packed = new int[ids.size()];
+            for (int i = 0; i < packed.length; i++) {
+                packed[i] = ids.get(i);
+            }
+            deletes.put(entry.getKey(), packed);
+        }
+    }
+
+    // Returns the closest lexicon term within the allowed distance, or null.
+    // The budget grows with the word: 1 edit below 7 letters, 2 from there on. Two edits in a short word
+    // reach far too many real words ("summer" -> "hammer", "bottle" -> "beetle").
+    // Ties go to the term that comes first in the lexicon.
+    public String correct(String word) {
+        int limit = Math.min(maxDistance, word.length() < LONG_WORD ? 1 : 2);
+        if (limit <= 0) return null;
+
+        Set<String> variants = new HashSet<>();
+        collectDeletes(word, limit, variants);
+        String best = null;
+        int bestDistance = limit + 1;
+        int bestId = Integer.MAX_VALUE;
+        int checked = 0;
+        Set<Integer> seen = new HashSet<>();
+        for (String variant : variants) {
+            int[] ids = deletes.get(variant);
+            if (ids == null) continue;
+            for (int id : ids) {
+                if (!seen.add(id)) continue;
+                if (++checked > maxCandidates) return best;
+                String term = terms.get(id);
+                if (Math.abs(term.length() - word.length()) > limit) continue;
+                int distance = distance(word, term, Math.min(limit, bestDistance));
+                // distance() reports anything past its bound as bound + 1, which equals the starting bestDistance
+                if (distance > limit) continue;
+                if (distance < bestDistance || (distance == bestDistance && id < bestId)) {
+                    best = term;
+                    bestDistance = distance;
+                    bestId = id;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Adds the word and every string made by deleting up to `depth` characters from it
+    private static void collectDeletes(String word, int depth, Set<String> out) {
+        if (!out.add(word) || depth == 0) return;
+        for (int i = 0; i < word.length(); i++) {
+            collectDeletes(word.substring(0, i) + word.substring(i + 1), depth - 1, out);
+        }
+    }
+
+    // Optimal string alignment distance (edits plus adjacent swaps), or limit + 1 once it exceeds limit
+    static int distance(String a, String b, int limit) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > limit) return limit + 1;
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > limit) return limit + 1;
+            int[] t = previous2;
+            previous2 = previous;
+            previous = current;
+            current = t;
+        }
+        return Math.min(previous[m], limit + 1);
+    }
+}
@@ -0,0 +1,92 @@
+package main;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Startup timeline and parallel background initialization for the Swing launcher.
+// Non-essential work (lexicon build, image index, audio decode) runs on daemon threads while the
+// EDT builds and shows the menu, so neither the menu nor the first analysis waits on class init.
+//
+// Timeline report: java -Dstartup.report=true -cp <classpath> main.Main
+// AppCDS (JDK 13+), a training run dumps the classes it loaded into an archive:
+//   java -XX:ArchiveClassesAtExit=language-analysis.jsa -cp <classpath> main.Main --train
+//   java -XX:SharedArchiveFile=language-analysis.jsa -cp <classpath> main.Main
+// The archive must be rebuilt whenever the classpath (jar) changes.
+public final class Startup {
+    private static final boolean REPORT = Boolean.getBoolean("startup.report");
+    private static final long PROCESS_START = ProcessHandle.current().info().startInstant()
+        .map(Instant::toEpochMilli).orElse(System.currentTimeMillis());
+    private static final List<String> timeline = new ArrayList<>();
+    private static final ExecutorService background = Executors.newFixedThreadPool(
+        Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())), runnable -> {
+            Thread thread = new Thread(runnable, "startup-background");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+
+    private Startup() {
+    }
+
+    // Records a timeline event, in milliseconds since the JVM process started
+    public static void mark(String event) {
+        long elapsed = System.currentTimeMillis() - PROCESS_START;
+        synchronized (timeline) {
+            timeline.add(String.format("%6d ms  %s [%s]", elapsed, event, Thread.currentThread().getName()));
+        }
+    }
+
+    // Runs a startup task off the EDT and records when it started and finished
+    public static CompletableFuture<Void> runInBackground(String name, Runnable task) {
+        return CompletableFuture.runAsync(() -> {
+            mark(name + " started");
+            task.run();
+            mark(name + " done");
+        }, background);
+    }
+
+    // Starts the lexicon and image index builds in parallel with the menu
+    public static void preload() {
+        runInBackground("lexicon", () -> initialize("main.ExpertSystem"));
+        runInBackground("image index", () -> initialize("main.ImageMapper"));
+    }
+
+    private static void initialize(String className) {
+        try {
+            Class.forName(className, true, Startup.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Prints the timeline to stderr when -Dstartup.report=true
+    public static void report() {
+        if (!REPORT) return;
+        synchronized (timeline) {
+            System.err.println("Startup timeline:");
+            for (String line : timeline) {
+                System.err.println(line);
+            }
+        }
+    }
+
+    // AppCDS training run: exercises the startup and analysis paths, then exits so the JVM can dump the archive
+    static void train() {
+        preload();
+        String[] sentences = {
+            "The cat will see the dog.", "Do you like apples?", "The bird can eat grapes!", "kitten"
+        };
+        for (String sentence : sentences) {
+            ExpertSystem.SentenceAnalysis analysis = ExpertSystem.analyzeSentence(sentence);
+            for (String word : analysis.getSubjects()) {
+                ImageMapper.getScaledIcon(word, 200, 200);
+            }
+            analysis.toString();
+        }
+        mark("training analyses done");
+    }
+}
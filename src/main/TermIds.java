@@ -0,0 +1,40 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Interns terms to dense int IDs (0, 1, 2, ...) so counters can be plain int-indexed arrays.
+// Lookups of known terms are lock-free; only assigning a new ID takes the lock.
+public class TermIds {
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<String> terms = new ArrayList<>();
+
+    public int idOf(String term) {
+        Integer id = ids.get(term);
+        if (id != null) return id;
+        synchronized (this) {
+            id = ids.get(term);
+            if (id == null) {
+                id = terms.size();
+                terms.add(term);
+                ids.put(term, id);
+            }
+            return id;
+        }
+    }
+
+    // Returns the term's ID without assigning one, or -1 if it was never interned
+    public int find(String term) {
+        Integer id = ids.get(term);
+        return id != null ? id : -1;
+    }
+
+    public synchronized String termOf(int id) {
+        return terms.get(id);
+    }
+
+    public synchronized int size() {
+        return terms.size();
+    }
+}